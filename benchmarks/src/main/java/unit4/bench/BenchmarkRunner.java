@@ -0,0 +1,28 @@
+package unit4.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Runs the StockPrice benchmarks with the
+ * GC profiler attached, so every result reports allocation rate
+ * (gc.alloc.rate.norm = bytes allocated per operation) next to throughput.
+ * Any JMH command-line option can still be passed.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(StockPriceBenchmark.class.getSimpleName());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package unit4.bench;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import unit4.PriceFrequencyIndex;
+import unit4.PriceStats;
+import unit4.StockPrice;
+import unit4.StockPrice.KernelMode;
+
+/**
+ * Throughput of the StockPrice kernels at sizes from 1e3 to 1e8 prices:
+ * boxed vs. primitive inputs, and scalar vs. parallel vs. vectorized variants.
+ *
+ * The 1e8 boxed list needs several GB of heap; pass for example
+ * {@code -jvmArgsAppend -Xmx8g}, or skip it with {@code -p size=1000,100000,10000000}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class StockPriceBenchmark {
+
+    /**
+     * Prices as a primitive array, with reusable output buffers.
+     */
+    @State(Scope.Benchmark)
+    public static class PrimitiveData {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        public int size;
+
+        public float[] prices;
+        public float[] out;
+        public float target;
+        public PriceFrequencyIndex index;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            prices = randomPrices(size);
+            out = new float[size];
+            target = prices[size / 2];
+            index = PriceFrequencyIndex.exact(prices);
+        }
+    }
+
+    /**
+     * The same prices boxed in an ArrayList, as the original API takes them.
+     */
+    @State(Scope.Benchmark)
+    public static class BoxedData {
+        @Param({"1000", "100000", "10000000", "100000000"})
+        public int size;
+
+        public ArrayList<Float> prices;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            float[] values = randomPrices(size);
+            prices = new ArrayList<>(size);
+            for (float value : values) {
+                prices.add(value);
+            }
+        }
+    }
+
+    static float[] randomPrices(int size) {
+        Random random = new Random(42);
+        float[] prices = new float[size];
+        for (int i = 0; i < size; i++) {
+            // Cent-rounded prices around 150, so occurrence counts are realistic
+            prices[i] = Math.round((150.0f + (float) random.nextGaussian() * 5.0f) * 100.0f) / 100.0f;
+        }
+        return prices;
+    }
+
+    // --- calculateAveragePrice ---
+
+    @Benchmark
+    public float averageScalar(PrimitiveData data) {
+        return StockPrice.calculateAveragePrice(data.prices);
+    }
+
+    @Benchmark
+    public float averageVector(PrimitiveData data) {
+        return StockPrice.calculateAveragePrice(data.prices, KernelMode.VECTOR);
+    }
+
+    @Benchmark
+    public double averageStats(PrimitiveData data) {
+        return PriceStats.of(data.prices).getMean();
+    }
+
+    @Benchmark
+    public double averageStatsParallel(PrimitiveData data) {
+        return PriceStats.ofParallel(data.prices).getMean();
+    }
+
+    // --- findMaximumPrice ---
+
+    @Benchmark
+    public float maximumScalar(PrimitiveData data) {
+        return StockPrice.findMaximumPrice(data.prices);
+    }
+
+    @Benchmark
+    public float maximumVector(PrimitiveData data) {
+        return StockPrice.findMaximumPrice(data.prices, KernelMode.VECTOR);
+    }
+
+    // --- countOccurrences ---
+
+    @Benchmark
+    public int countScalar(PrimitiveData data) {
+        return StockPrice.countOccurrences(data.prices, data.target);
+    }
+
+    @Benchmark
+    public int countVector(PrimitiveData data) {
+        return StockPrice.countOccurrences(data.prices, data.target, KernelMode.VECTOR);
+    }
+
+    @Benchmark
+    public int countIndexed(PrimitiveData data) {
+        return data.index.countOccurrences(data.target);
+    }
+
+    // --- computeCumulativeSum ---
+
+    @Benchmark
+    public ArrayList<Float> cumulativeSumBoxed(BoxedData data) {
+        return StockPrice.computeCumulativeSum(data.prices);
+    }
+
+    @Benchmark
+    public float[] cumulativeSumPrimitive(PrimitiveData data) {
+        return StockPrice.computeCumulativeSum(data.prices, data.out);
+    }
+
+    @Benchmark
+    public float[] cumulativeSumParallel(PrimitiveData data) {
+        return StockPrice.parallelCumulativeSum(data.prices, data.out);
+    }
+}
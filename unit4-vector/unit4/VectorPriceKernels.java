@@ -0,0 +1,100 @@
+package unit4;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD versions of the StockPrice aggregates built on the incubating
+ * Java Vector API. It lives in its own source root, unit4-vector, because
+ * it only compiles with {@code --add-modules jdk.incubator.vector}; plain
+ * {@code javac unit4/*.java} leaves it out. The benchmarks module compiles
+ * both roots with the flag. {@link StockPrice} loads this class
+ * reflectively, so when it is not on the class path, or the JVM was
+ * started without the flag, StockPrice keeps using its scalar loops.
+ */
+final class VectorPriceKernels implements PriceKernels {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * Sums the prices lane by lane and reduces the lanes at the end.
+     * The additions are grouped differently from the scalar loop, so the
+     * result can differ from it in the last bits.
+     */
+    @Override
+    public float average(float[] prices) {
+        int upperBound = SPECIES.loopBound(prices.length);
+        FloatVector sums = FloatVector.zero(SPECIES);
+        int i = 0;
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            sums = sums.add(FloatVector.fromArray(SPECIES, prices, i));
+        }
+
+        float sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < prices.length; i++) {
+            sum += prices[i];
+        }
+
+        return sum / prices.length;
+    }
+
+    /**
+     * Keeps a running maximum per lane, replacing a lane only when the new
+     * value is strictly greater, just like the scalar loop. This gives the
+     * same result as the scalar loop, NaN handling included; the only
+     * possible difference is which of 0.0 and -0.0 is kept on a tie.
+     */
+    @Override
+    public float maximum(float[] prices) {
+        int upperBound = SPECIES.loopBound(prices.length);
+        FloatVector max = FloatVector.broadcast(SPECIES, prices[0]);
+        int i = 0;
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector v = FloatVector.fromArray(SPECIES, prices, i);
+            max = max.blend(v, v.compare(VectorOperators.GT, max));
+        }
+
+        float result = prices[0];
+        for (int lane = 0; lane < SPECIES.length(); lane++) {
+            float candidate = max.lane(lane);
+            if (candidate > result) {
+                result = candidate;
+            }
+        }
+        for (; i < prices.length; i++) {
+            if (prices[i] > result) {
+                result = prices[i];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Counts matching lanes with a vector compare. The result is always
+     * identical to the scalar loop.
+     */
+    @Override
+    public int countOccurrences(float[] prices, float targetPrice) {
+        int upperBound = SPECIES.loopBound(prices.length);
+        FloatVector target = FloatVector.broadcast(SPECIES, targetPrice);
+        int count = 0;
+        int i = 0;
+
+        for (; i < upperBound; i += SPECIES.length()) {
+            VectorMask<Float> matches = FloatVector.fromArray(SPECIES, prices, i)
+                    .compare(VectorOperators.EQ, target);
+            count += matches.trueCount();
+        }
+        for (; i < prices.length; i++) {
+            if (prices[i] == targetPrice) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,220 @@
+package unit4;
+
+/**
+ * Fixed-point versions of the StockPrice operations.
+ *
+ * Prices are stored as whole numbers of ticks, for example cents with
+ * 100 ticks per unit, as long[] or as compact int[] when the values fit in
+ * 32 bits. Conversion to and from float happens only at the edges. Within
+ * that, every sum is exact integer arithmetic: occurrence counts compare
+ * integers rather than floats, and cumulative sums never lose precision the
+ * way a float running sum does past about 16 million. The loops keep
+ * branches out of the hot path (Math.max, conditional counting), which the
+ * JIT turns into branch-free integer instructions.
+ *
+ * Sums are accumulated in long: at 100 ticks per unit they stay exact up to
+ * about 9.2e16 in price units.
+ */
+public class FixedPointPrices {
+
+    /**
+     * Converts float prices to ticks, rounding to the nearest tick.
+     *
+     * @param prices       array of stock prices (float)
+     * @param ticksPerUnit ticks per price unit, for example 100 for cents
+     * @return prices in ticks
+     */
+    public static long[] toTicks(float[] prices, long ticksPerUnit) {
+        long[] ticks = new long[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            ticks[i] = Math.round(prices[i] * (double) ticksPerUnit);
+        }
+        return ticks;
+    }
+
+    /**
+     * Converts float prices to ticks stored in 32 bits, halving memory and
+     * bandwidth compared to {@link #toTicks(float[], long)}.
+     *
+     * @param prices       array of stock prices (float)
+     * @param ticksPerUnit ticks per price unit, for example 100 for cents
+     * @return prices in ticks
+     * @throws ArithmeticException if a price does not fit in an int number of ticks
+     */
+    public static int[] toCompactTicks(float[] prices, int ticksPerUnit) {
+        int[] ticks = new int[prices.length];
+        for (int i = 0; i < prices.length; i++) {
+            ticks[i] = Math.toIntExact(Math.round(prices[i] * (double) ticksPerUnit));
+        }
+        return ticks;
+    }
+
+    /**
+     * Converts a number of ticks back to a price.
+     *
+     * @param ticks        value in ticks
+     * @param ticksPerUnit ticks per price unit
+     * @return the price
+     */
+    public static double toPrice(long ticks, long ticksPerUnit) {
+        return (double) ticks / ticksPerUnit;
+    }
+
+    /**
+     * Converts a price to the nearest number of ticks, for example to build
+     * the target of {@link #countOccurrences(long[], long)}.
+     *
+     * @param price        the price
+     * @param ticksPerUnit ticks per price unit
+     * @return the price in ticks
+     */
+    public static long toTicks(double price, long ticksPerUnit) {
+        return Math.round(price * ticksPerUnit);
+    }
+
+    /**
+     * @param ticks prices in ticks
+     * @return exact sum of the prices, in ticks
+     */
+    public static long sum(long[] ticks) {
+        long sum = 0;
+        for (long tick : ticks) {
+            sum += tick;
+        }
+        return sum;
+    }
+
+    /**
+     * @param ticks prices in ticks (32-bit)
+     * @return exact sum of the prices, in ticks
+     */
+    public static long sum(int[] ticks) {
+        long sum = 0;
+        for (int tick : ticks) {
+            sum += tick;
+        }
+        return sum;
+    }
+
+    /**
+     * Calculates the average price from an exact sum, rounding only once.
+     *
+     * @param ticks prices in ticks
+     * @return average price, in ticks
+     * @see StockPrice#calculateAveragePrice(float[])
+     */
+    public static double calculateAveragePrice(long[] ticks) {
+        return (double) sum(ticks) / ticks.length;
+    }
+
+    /**
+     * @param ticks prices in ticks (32-bit)
+     * @return average price, in ticks
+     * @see StockPrice#calculateAveragePrice(float[])
+     */
+    public static double calculateAveragePrice(int[] ticks) {
+        return (double) sum(ticks) / ticks.length;
+    }
+
+    /**
+     * @param ticks prices in ticks
+     * @return maximum price, in ticks
+     * @see StockPrice#findMaximumPrice(float[])
+     */
+    public static long findMaximumPrice(long[] ticks) {
+        long max = ticks[0];
+        for (int i = 1; i < ticks.length; i++) {
+            max = Math.max(max, ticks[i]);
+        }
+        return max;
+    }
+
+    /**
+     * @param ticks prices in ticks (32-bit)
+     * @return maximum price, in ticks
+     * @see StockPrice#findMaximumPrice(float[])
+     */
+    public static int findMaximumPrice(int[] ticks) {
+        int max = ticks[0];
+        for (int i = 1; i < ticks.length; i++) {
+            max = Math.max(max, ticks[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Counts exact matches; unlike float ==, two prices that round to the
+     * same tick always compare equal.
+     *
+     * @param ticks       prices in ticks
+     * @param targetTicks price to search for, in ticks
+     * @return number of occurrences of targetTicks
+     * @see StockPrice#countOccurrences(float[], float)
+     */
+    public static int countOccurrences(long[] ticks, long targetTicks) {
+        int count = 0;
+        for (long tick : ticks) {
+            count += tick == targetTicks ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @param ticks       prices in ticks (32-bit)
+     * @param targetTicks price to search for, in ticks
+     * @return number of occurrences of targetTicks
+     * @see StockPrice#countOccurrences(float[], float)
+     */
+    public static int countOccurrences(int[] ticks, int targetTicks) {
+        int count = 0;
+        for (int tick : ticks) {
+            count += tick == targetTicks ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Computes the exact cumulative sum into a caller-supplied buffer.
+     * The output may be the input array itself for an in-place sum.
+     *
+     * @param ticks prices in ticks
+     * @param out   buffer receiving the cumulative sums, at least ticks.length long
+     * @return the out buffer
+     * @see StockPrice#computeCumulativeSum(float[], float[])
+     */
+    public static long[] computeCumulativeSum(long[] ticks, long[] out) {
+        checkOutputLength(ticks.length, out.length);
+        long runningSum = 0;
+        for (int i = 0; i < ticks.length; i++) {
+            runningSum += ticks[i];
+            out[i] = runningSum;
+        }
+        return out;
+    }
+
+    /**
+     * Computes the exact cumulative sum of 32-bit ticks into 64-bit sums,
+     * so the running total cannot overflow even when the inputs are compact.
+     *
+     * @param ticks prices in ticks (32-bit)
+     * @param out   buffer receiving the cumulative sums, at least ticks.length long
+     * @return the out buffer
+     * @see StockPrice#computeCumulativeSum(float[], float[])
+     */
+    public static long[] computeCumulativeSum(int[] ticks, long[] out) {
+        checkOutputLength(ticks.length, out.length);
+        long runningSum = 0;
+        for (int i = 0; i < ticks.length; i++) {
+            runningSum += ticks[i];
+            out[i] = runningSum;
+        }
+        return out;
+    }
+
+    private static void checkOutputLength(int inputLength, int outputLength) {
+        if (outputLength < inputLength) {
+            throw new IllegalArgumentException(
+                    "Output buffer too small: " + outputLength + " < " + inputLength);
+        }
+    }
+}
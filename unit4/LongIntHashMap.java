@@ -0,0 +1,147 @@
+package unit4;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to positive int counts, used to
+ * count price occurrences without boxing.
+ *
+ * A slot whose count is 0 is empty, so a key disappears as soon as its
+ * count drops back to 0. Collisions use linear probing and removals use
+ * backward-shift deletion, so no tombstones are ever left behind.
+ */
+final class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedKeys number of distinct keys to size the table for
+     */
+    LongIntHashMap(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedKeys / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the count stored for key, or 0 if absent
+     */
+    int get(long key) {
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds delta to the count of key, inserting or removing the key as needed.
+     *
+     * @param key   the key to update
+     * @param delta amount to add; the resulting count must not be negative
+     * @return the new count
+     */
+    int add(long key, int delta) {
+        int slot = slot(key);
+        while (counts[slot] != 0) {
+            if (keys[slot] == key) {
+                int count = counts[slot] + delta;
+                if (count == 0) {
+                    remove(slot);
+                } else {
+                    counts[slot] = count;
+                }
+                return count;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        counts[slot] = delta;
+        if (++size > keys.length * LOAD_FACTOR) {
+            resize(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * @return number of keys with a non-zero count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes every key.
+     */
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential keys
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void remove(int slot) {
+        size--;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (counts[next] != 0) {
+            int home = slot(keys[next]);
+            // Move the entry back into the gap unless its home lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                counts[gap] = counts[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        counts[gap] = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldCounts[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (counts[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Turns a price into a map key that follows the == semantics of
+     * {@link StockPrice#countOccurrences(float[], float)}: 0.0 and -0.0 share
+     * a key. NaN never equals anything, so callers must skip it.
+     */
+    static long priceKey(float price) {
+        return Float.floatToIntBits(price == 0.0f ? 0.0f : price);
+    }
+}
@@ -0,0 +1,405 @@
+package unit4;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary columnar price file, read and written through memory mapping.
+ *
+ * Layout (all values little-endian):
+ * <pre>
+ *   int    magic        "PRCF"
+ *   short  version      1
+ *   short  columnCount
+ *   long   rowCount
+ *   int    dataOffset   start of the first column, a multiple of 64
+ *   per column: short nameLength, then nameLength bytes of UTF-8
+ *   padding up to dataOffset
+ *   column 0: rowCount floats, column 1: rowCount floats, ...
+ * </pre>
+ * Each column is stored contiguously, so scanning one column touches only
+ * its own pages. Columns are mapped with {@link FileChannel#map} and never
+ * copied onto the heap, which lets the StockPrice aggregates run over
+ * series far larger than the heap. A single mapping is limited to 2 GiB,
+ * so long columns are exposed as several consecutive chunks.
+ */
+public class PriceFile implements Closeable {
+    static final int MAGIC = 0x46435250; // "PRCF" read as a little-endian int
+    static final short VERSION = 1;
+    static final int DATA_ALIGNMENT = 64;
+    static final int CHUNK_FLOATS = 1 << 28; // 1 GiB per mapping
+
+    private final FileChannel channel;
+    private final boolean writable;
+    private final long rowCount;
+    private final long dataOffset;
+    private final String[] columnNames;
+    private final Column[] columns;
+
+    private PriceFile(FileChannel channel, boolean writable, long rowCount, long dataOffset,
+                      String[] columnNames) throws IOException {
+        this.channel = channel;
+        this.writable = writable;
+        this.rowCount = rowCount;
+        this.dataOffset = dataOffset;
+        this.columnNames = columnNames;
+        this.columns = new Column[columnNames.length];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new Column(columnNames[c], mapColumn(c));
+        }
+    }
+
+    /**
+     * Creates (or truncates) a price file with the given columns and maps it
+     * for writing. Every price starts at 0.0.
+     *
+     * @param path        file to create
+     * @param rowCount    number of prices per column
+     * @param columnNames names of the columns, for example "open", "close"
+     * @return the writable price file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static PriceFile create(Path path, long rowCount, String... columnNames) throws IOException {
+        if (rowCount < 0 || columnNames.length == 0 || columnNames.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid price file shape");
+        }
+
+        int headerSize = 20;
+        byte[][] encodedNames = new byte[columnNames.length][];
+        for (int c = 0; c < columnNames.length; c++) {
+            encodedNames[c] = columnNames[c].getBytes(StandardCharsets.UTF_8);
+            headerSize += 2 + encodedNames[c].length;
+        }
+        int dataOffset = (headerSize + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+
+        ByteBuffer header = ByteBuffer.allocate(dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort(VERSION);
+        header.putShort((short) columnNames.length);
+        header.putLong(rowCount);
+        header.putInt(dataOffset);
+        for (byte[] name : encodedNames) {
+            header.putShort((short) name.length);
+            header.put(name);
+        }
+        header.clear();
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            long fileSize = dataOffset + rowCount * Float.BYTES * columnNames.length;
+            if (fileSize > dataOffset) {
+                // Extend the file so every column can be mapped
+                channel.write(ByteBuffer.allocate(1), fileSize - 1);
+            }
+            return new PriceFile(channel, true, rowCount, dataOffset, columnNames.clone());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes in-memory columns to a new price file and flushes it to disk.
+     *
+     * @param path        file to create
+     * @param columnNames names of the columns
+     * @param columns     prices for each column, all of the same length
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, String[] columnNames, float[]... columns) throws IOException {
+        if (columnNames.length != columns.length) {
+            throw new IllegalArgumentException("Expected one name per column");
+        }
+        long rows = columns.length == 0 ? 0 : columns[0].length;
+        try (PriceFile file = create(path, rows, columnNames)) {
+            for (int c = 0; c < columns.length; c++) {
+                if (columns[c].length != rows) {
+                    throw new IllegalArgumentException("All columns must have the same length");
+                }
+                Column column = file.column(c);
+                for (int k = 0; k < column.chunkCount(); k++) {
+                    FloatBuffer chunk = column.chunk(k);
+                    chunk.put(0, columns[c], k * CHUNK_FLOATS, chunk.limit());
+                }
+            }
+            file.force();
+        }
+    }
+
+    /**
+     * Opens an existing price file and maps its columns read-only.
+     *
+     * @param path file to open
+     * @return the read-only price file
+     * @throws IOException if the file cannot be read or is not a price file
+     */
+    public static PriceFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer fixed = readFully(channel, 0, 20);
+            if (fixed.getInt() != MAGIC) {
+                throw new IOException("Not a price file: " + path);
+            }
+            short version = fixed.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported price file version " + version + ": " + path);
+            }
+            int columnCount = fixed.getShort();
+            long rowCount = fixed.getLong();
+            int dataOffset = fixed.getInt();
+            long fileSize = channel.size();
+            if (columnCount <= 0 || rowCount < 0 || dataOffset < 20 || dataOffset > fileSize
+                    || fileSize < dataEnd(dataOffset, rowCount, columnCount)) {
+                throw new IOException("Corrupt price file header: " + path);
+            }
+
+            ByteBuffer names = readFully(channel, 20, dataOffset - 20);
+            String[] columnNames = new String[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                int length = names.remaining() >= Short.BYTES ? names.getShort() : -1;
+                if (length < 0 || length > names.remaining()) {
+                    throw new IOException("Corrupt price file header: " + path);
+                }
+                byte[] name = new byte[length];
+                names.get(name);
+                columnNames[c] = new String(name, StandardCharsets.UTF_8);
+            }
+            return new PriceFile(channel, false, rowCount, dataOffset, columnNames);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Offset just past the last column, or Long.MAX_VALUE when the header
+     * values are so large that it does not fit in a long.
+     */
+    private static long dataEnd(long dataOffset, long rowCount, int columnCount) {
+        try {
+            return Math.addExact(dataOffset,
+                    Math.multiplyExact(rowCount, (long) Float.BYTES * columnCount));
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of price file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private FloatBuffer[] mapColumn(int column) throws IOException {
+        FileChannel.MapMode mode = writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        long columnStart = dataOffset + (long) column * rowCount * Float.BYTES;
+        int chunkCount = (int) Math.max(1, (rowCount + CHUNK_FLOATS - 1) / CHUNK_FLOATS);
+        FloatBuffer[] chunks = new FloatBuffer[chunkCount];
+
+        for (int k = 0; k < chunkCount; k++) {
+            long first = (long) k * CHUNK_FLOATS;
+            long length = Math.min(CHUNK_FLOATS, rowCount - first);
+            chunks[k] = channel.map(mode, columnStart + first * Float.BYTES, length * Float.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asFloatBuffer();
+        }
+        return chunks;
+    }
+
+    /**
+     * @return number of prices in each column
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of columns
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    /**
+     * @param index column index
+     * @return the name of the column
+     */
+    public String getColumnName(int index) {
+        return columnNames[index];
+    }
+
+    /**
+     * @param index column index
+     * @return the column
+     */
+    public Column column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param name column name
+     * @return the column, or null if there is no column with that name
+     */
+    public Column column(String name) {
+        for (Column column : columns) {
+            if (column.name.equals(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Flushes changes made through a writable file to disk.
+     *
+     * @throws IOException if the flush fails
+     */
+    public void force() throws IOException {
+        if (writable) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * One memory-mapped column of prices. The aggregates run straight over
+     * the mapped buffers and give the same results as the corresponding
+     * {@link StockPrice} methods on an array holding the same prices.
+     */
+    public static final class Column {
+        private final String name;
+        private final FloatBuffer[] chunks;
+
+        private Column(String name, FloatBuffer[] chunks) {
+            this.name = name;
+            this.chunks = chunks;
+        }
+
+        /**
+         * @return the column name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return number of prices in the column
+         */
+        public long size() {
+            long size = 0;
+            for (FloatBuffer chunk : chunks) {
+                size += chunk.limit();
+            }
+            return size;
+        }
+
+        /**
+         * @return number of mapped chunks; only columns over 2^28 prices have more than one
+         */
+        public int chunkCount() {
+            return chunks.length;
+        }
+
+        /**
+         * Returns a mapped chunk of the column. The price at index i of the column
+         * is at {@code chunk(i >> 28).get(i & (2^28 - 1))}.
+         *
+         * @param index chunk index
+         * @return a view of the mapped chunk with its own position and limit
+         */
+        public FloatBuffer chunk(int index) {
+            return chunks[index].duplicate();
+        }
+
+        /**
+         * @param index price index in the column
+         * @return the price at index
+         */
+        public float get(long index) {
+            return chunks[(int) (index / CHUNK_FLOATS)].get((int) (index % CHUNK_FLOATS));
+        }
+
+        /**
+         * @param index price index in the column
+         * @param price the new price; the file must have been created, not opened
+         */
+        public void set(long index, float price) {
+            chunks[(int) (index / CHUNK_FLOATS)].put((int) (index % CHUNK_FLOATS), price);
+        }
+
+        /**
+         * @return average price of the column
+         * @see StockPrice#calculateAveragePrice(float[])
+         */
+        public float average() {
+            float sum = 0.0f;
+            for (FloatBuffer chunk : chunks) {
+                sum = StockPrice.sumPrices(chunk, sum);
+            }
+            return sum / size();
+        }
+
+        /**
+         * @return maximum price of the column
+         * @see StockPrice#findMaximumPrice(float[])
+         */
+        public float maximum() {
+            float max = get(0);
+            for (FloatBuffer chunk : chunks) {
+                max = StockPrice.maximumPrice(chunk, max);
+            }
+            return max;
+        }
+
+        /**
+         * @param targetPrice price to search for
+         * @return number of occurrences of targetPrice in the column
+         * @see StockPrice#countOccurrences(float[], float)
+         */
+        public long countOccurrences(float targetPrice) {
+            long count = 0;
+            for (FloatBuffer chunk : chunks) {
+                count += StockPrice.countOccurrences(chunk, targetPrice);
+            }
+            return count;
+        }
+
+        /**
+         * Writes the cumulative sum of this column into another column of the
+         * same size, typically in a file made with {@link PriceFile#create}.
+         * The output column may be this column for an in-place sum.
+         *
+         * @param out column receiving the cumulative sums
+         * @see StockPrice#computeCumulativeSum(float[], float[])
+         */
+        public void cumulativeSum(Column out) {
+            if (out.size() != size()) {
+                throw new IllegalArgumentException("Output column must have the same size");
+            }
+            float runningSum = 0.0f;
+            for (int k = 0; k < chunks.length; k++) {
+                runningSum = StockPrice.cumulativeSum(chunks[k], out.chunks[k], runningSum);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package unit4;
+
+/**
+ * Prebuilt frequency index for answering many "how often did price X occur"
+ * queries against the same series.
+ *
+ * Building the index is one O(n) pass; after that every query is an O(1)
+ * hash lookup instead of the O(n) scan of
+ * {@link StockPrice#countOccurrences(float[], float)}. Counts are stored in a
+ * primitive open-addressing map, so neither building nor querying boxes.
+ *
+ * In exact mode a query matches prices that are == to it, just like
+ * countOccurrences. In bucketed mode prices are first rounded to the nearest
+ * multiple of a tick size, so near-equal prices such as 153.2 and
+ * 153.20001 are counted together.
+ */
+public class PriceFrequencyIndex {
+    private final LongIntHashMap counts;
+    private final double tickSize; // 0 in exact mode
+    private final int totalCount;
+
+    private PriceFrequencyIndex(LongIntHashMap counts, double tickSize, int totalCount) {
+        this.counts = counts;
+        this.tickSize = tickSize;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Builds an exact index: counts follow the == comparison of
+     * {@link StockPrice#countOccurrences(float[], float)}.
+     *
+     * @param prices array of stock prices (float)
+     * @return the index
+     */
+    public static PriceFrequencyIndex exact(float[] prices) {
+        LongIntHashMap counts = new LongIntHashMap();
+        int total = 0;
+        for (float price : prices) {
+            if (price == price) { // NaN is never equal to a query
+                counts.add(LongIntHashMap.priceKey(price), 1);
+                total++;
+            }
+        }
+        return new PriceFrequencyIndex(counts, 0.0, total);
+    }
+
+    /**
+     * Builds a bucketed index: each price is rounded to the nearest multiple
+     * of tickSize, and prices that round to the same multiple are counted
+     * together. For example, with a tick size of 0.01, any price from 153.195
+     * up to (but not including) 153.205 is counted as 153.20.
+     *
+     * @param prices   array of stock prices (float)
+     * @param tickSize bucket width, for example 0.01 for cents
+     * @return the index
+     */
+    public static PriceFrequencyIndex bucketed(float[] prices, double tickSize) {
+        if (!(tickSize > 0.0)) {
+            throw new IllegalArgumentException("Tick size must be greater than 0");
+        }
+        LongIntHashMap counts = new LongIntHashMap();
+        int total = 0;
+        for (float price : prices) {
+            if (price == price) {
+                counts.add(Math.round(price / tickSize), 1);
+                total++;
+            }
+        }
+        return new PriceFrequencyIndex(counts, tickSize, total);
+    }
+
+    /**
+     * Counts how many indexed prices match the target price, either exactly
+     * or within the same tick bucket, depending on how the index was built.
+     *
+     * @param targetPrice price to search for
+     * @return number of occurrences of targetPrice
+     */
+    public int countOccurrences(float targetPrice) {
+        if (targetPrice != targetPrice) {
+            return 0;
+        }
+        long key = tickSize == 0.0
+                ? LongIntHashMap.priceKey(targetPrice)
+                : Math.round(targetPrice / tickSize);
+        return counts.get(key);
+    }
+
+    /**
+     * @return number of distinct prices (or tick buckets) in the index
+     */
+    public int getDistinctPrices() {
+        return counts.size();
+    }
+
+    /**
+     * @return number of prices indexed, NaN prices excluded
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return true if prices are bucketed by tick size rather than matched exactly
+     */
+    public boolean isBucketed() {
+        return tickSize != 0.0;
+    }
+}
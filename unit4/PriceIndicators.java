@@ -0,0 +1,304 @@
+package unit4;
+
+/**
+ * Sliding-window technical indicators over a price series.
+ *
+ * Every indicator is computed in a single O(n) pass, whatever the window
+ * size, by updating running sums or a monotonic deque as the window slides,
+ * instead of re-averaging a copied slice at every position. Results are
+ * written into a caller-supplied output array at least as long as the input,
+ * so buffers can be reused across symbols and calls. Positions before the
+ * first full window are set to NaN.
+ *
+ * The *ForSymbols methods run one indicator over many symbols in parallel
+ * on the common fork-join pool.
+ */
+public class PriceIndicators {
+    /** Prices between exact recomputations of the rolling standard deviation. */
+    private static final int STDDEV_RESYNC_INTERVAL = 4096;
+
+    /**
+     * Indicators that need only prices and a window length.
+     */
+    public enum Indicator {
+        /** Simple moving average. */
+        SMA,
+        /** Exponential moving average with smoothing 2 / (window + 1). */
+        EMA,
+        /** Lowest price in the window. */
+        ROLLING_MIN,
+        /** Highest price in the window. */
+        ROLLING_MAX,
+        /** Population standard deviation of the window. */
+        ROLLING_STDDEV;
+
+        /**
+         * Computes this indicator for one series.
+         *
+         * @param prices array of stock prices (float)
+         * @param window window length in prices
+         * @param out    buffer receiving the indicator values
+         * @return the out buffer
+         */
+        public float[] compute(float[] prices, int window, float[] out) {
+            switch (this) {
+                case SMA:
+                    return simpleMovingAverage(prices, window, out);
+                case EMA:
+                    return exponentialMovingAverage(prices, window, out);
+                case ROLLING_MIN:
+                    return rollingMinimum(prices, window, out);
+                case ROLLING_MAX:
+                    return rollingMaximum(prices, window, out);
+                case ROLLING_STDDEV:
+                    return rollingStandardDeviation(prices, window, out);
+                default:
+                    throw new AssertionError(this);
+            }
+        }
+    }
+
+    /**
+     * Simple moving average: mean of the last window prices.
+     *
+     * @param prices array of stock prices (float)
+     * @param window window length in prices
+     * @param out    buffer receiving the averages
+     * @return the out buffer
+     */
+    public static float[] simpleMovingAverage(float[] prices, int window, float[] out) {
+        checkArguments(prices.length, window, out.length);
+        double sum = 0.0;
+
+        for (int i = 0; i < prices.length; i++) {
+            sum += prices[i];
+            if (i >= window) {
+                sum -= prices[i - window];
+            }
+            out[i] = i >= window - 1 ? (float) (sum / window) : Float.NaN;
+        }
+
+        return out;
+    }
+
+    /**
+     * Exponential moving average, seeded with the first price. Unlike the
+     * windowed indicators it has a value from the very first position.
+     *
+     * @param prices array of stock prices (float)
+     * @param period smoothing period; the weight of the newest price is 2 / (period + 1)
+     * @param out    buffer receiving the averages
+     * @return the out buffer
+     */
+    public static float[] exponentialMovingAverage(float[] prices, int period, float[] out) {
+        checkArguments(prices.length, period, out.length);
+        double alpha = 2.0 / (period + 1);
+        double ema = prices.length > 0 ? prices[0] : 0.0;
+
+        for (int i = 0; i < prices.length; i++) {
+            ema += alpha * (prices[i] - ema);
+            out[i] = (float) ema;
+        }
+
+        return out;
+    }
+
+    /**
+     * Rolling minimum of the last window prices.
+     *
+     * @param prices array of stock prices (float)
+     * @param window window length in prices
+     * @param out    buffer receiving the minimums
+     * @return the out buffer
+     */
+    public static float[] rollingMinimum(float[] prices, int window, float[] out) {
+        return rollingExtreme(prices, window, out, false);
+    }
+
+    /**
+     * Rolling maximum of the last window prices.
+     *
+     * @param prices array of stock prices (float)
+     * @param window window length in prices
+     * @param out    buffer receiving the maximums
+     * @return the out buffer
+     */
+    public static float[] rollingMaximum(float[] prices, int window, float[] out) {
+        return rollingExtreme(prices, window, out, true);
+    }
+
+    /**
+     * Monotonic deque scan: the deque holds indices whose prices are
+     * strictly decreasing (for max) or increasing (for min) from front to
+     * back, so the front is always the extreme of the current window. Each
+     * index is pushed and popped at most once, giving O(n) overall.
+     */
+    private static float[] rollingExtreme(float[] prices, int window, float[] out, boolean max) {
+        checkArguments(prices.length, window, out.length);
+        int[] deque = new int[Math.min(window, Math.max(1, prices.length))];
+        int head = 0;
+        int size = 0;
+
+        for (int i = 0; i < prices.length; i++) {
+            float price = prices[i];
+            while (size > 0) {
+                float back = prices[deque[(head + size - 1) % deque.length]];
+                if (max ? back > price : back < price) {
+                    break;
+                }
+                size--;
+            }
+            if (size > 0 && deque[head] <= i - window) {
+                head = (head + 1) % deque.length;
+                size--;
+            }
+            deque[(head + size++) % deque.length] = i;
+
+            out[i] = i >= window - 1 ? prices[deque[head]] : Float.NaN;
+        }
+
+        return out;
+    }
+
+    /**
+     * Rolling population standard deviation of the last window prices.
+     * Keeps the window mean and the sum of squared deviations from it
+     * (Welford's method), replacing the leaving price with the new one at
+     * each step. Unlike a running sum of squares, this does not cancel
+     * away the spread when the prices are large compared with it. Both
+     * values are recomputed from the window every STDDEV_RESYNC_INTERVAL
+     * prices (or every window, if longer), so rounding errors cannot pile
+     * up over a long series; that costs at most two extra reads per price.
+     *
+     * @param prices array of stock prices (float)
+     * @param window window length in prices
+     * @param out    buffer receiving the standard deviations
+     * @return the out buffer
+     */
+    public static float[] rollingStandardDeviation(float[] prices, int window, float[] out) {
+        checkArguments(prices.length, window, out.length);
+        int resyncInterval = Math.max(window, STDDEV_RESYNC_INTERVAL);
+        double mean = 0.0;
+        double squaredDeviations = 0.0;
+
+        for (int i = 0; i < prices.length; i++) {
+            double price = prices[i];
+            if (i < window) {
+                double delta = price - mean;
+                mean += delta / (i + 1);
+                squaredDeviations += delta * (price - mean);
+            } else if (i % resyncInterval == 0) {
+                mean = 0.0;
+                for (int k = i - window + 1; k <= i; k++) {
+                    mean += prices[k];
+                }
+                mean /= window;
+                squaredDeviations = 0.0;
+                for (int k = i - window + 1; k <= i; k++) {
+                    double deviation = prices[k] - mean;
+                    squaredDeviations += deviation * deviation;
+                }
+            } else {
+                double leaving = prices[i - window];
+                double oldMean = mean;
+                mean += (price - leaving) / window;
+                squaredDeviations += (price - leaving) * (price - mean + leaving - oldMean);
+            }
+            if (i >= window - 1) {
+                // Rounding can push a flat window's sum slightly below 0
+                out[i] = (float) Math.sqrt(Math.max(0.0, squaredDeviations) / window);
+            } else {
+                out[i] = Float.NaN;
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Cumulative volume-weighted average price from the start of the series.
+     *
+     * @param prices  array of stock prices (float)
+     * @param volumes traded volume at each price
+     * @param out     buffer receiving the VWAP at each position
+     * @return the out buffer
+     */
+    public static float[] volumeWeightedAveragePrice(float[] prices, float[] volumes, float[] out) {
+        return rollingVolumeWeightedAveragePrice(prices, volumes, Integer.MAX_VALUE, out);
+    }
+
+    /**
+     * Volume-weighted average price over the last window prices. Positions
+     * where the window holds no volume are NaN.
+     *
+     * @param prices  array of stock prices (float)
+     * @param volumes traded volume at each price
+     * @param window  window length in prices; Integer.MAX_VALUE for a cumulative VWAP
+     * @param out     buffer receiving the VWAP at each position
+     * @return the out buffer
+     */
+    public static float[] rollingVolumeWeightedAveragePrice(float[] prices, float[] volumes, int window,
+                                                            float[] out) {
+        checkArguments(prices.length, window, out.length);
+        if (volumes.length < prices.length) {
+            throw new IllegalArgumentException("Expected one volume per price");
+        }
+        double priceVolume = 0.0;
+        double volume = 0.0;
+
+        for (int i = 0; i < prices.length; i++) {
+            priceVolume += (double) prices[i] * volumes[i];
+            volume += volumes[i];
+            if (i >= window) {
+                priceVolume -= (double) prices[i - window] * volumes[i - window];
+                volume -= volumes[i - window];
+            }
+            boolean full = window == Integer.MAX_VALUE || i >= window - 1;
+            out[i] = full && volume != 0.0 ? (float) (priceVolume / volume) : Float.NaN;
+        }
+
+        return out;
+    }
+
+    /**
+     * Computes one indicator for many symbols in parallel.
+     *
+     * @param indicator the indicator to compute
+     * @param prices    one price series per symbol
+     * @param window    window length in prices
+     * @param out       one output buffer per symbol
+     */
+    public static void computeForSymbols(Indicator indicator, float[][] prices, int window, float[][] out) {
+        if (out.length < prices.length) {
+            throw new IllegalArgumentException("Expected one output buffer per symbol");
+        }
+        StockPrice.forEachBlock(prices.length, s -> indicator.compute(prices[s], window, out[s]));
+    }
+
+    /**
+     * Computes the rolling VWAP for many symbols in parallel.
+     *
+     * @param prices  one price series per symbol
+     * @param volumes one volume series per symbol
+     * @param window  window length in prices; Integer.MAX_VALUE for a cumulative VWAP
+     * @param out     one output buffer per symbol
+     */
+    public static void volumeWeightedAveragePriceForSymbols(float[][] prices, float[][] volumes, int window,
+                                                            float[][] out) {
+        if (volumes.length < prices.length || out.length < prices.length) {
+            throw new IllegalArgumentException("Expected volumes and an output buffer per symbol");
+        }
+        StockPrice.forEachBlock(prices.length,
+                s -> rollingVolumeWeightedAveragePrice(prices[s], volumes[s], window, out[s]));
+    }
+
+    private static void checkArguments(int inputLength, int window, int outputLength) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Window must be greater than 0");
+        }
+        if (outputLength < inputLength) {
+            throw new IllegalArgumentException(
+                    "Output buffer too small: " + outputLength + " < " + inputLength);
+        }
+    }
+}
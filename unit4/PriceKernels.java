@@ -0,0 +1,27 @@
+package unit4;
+
+/**
+ * Aggregation kernels used by {@link StockPrice} when a non-scalar
+ * {@link StockPrice.KernelMode} is requested.
+ */
+interface PriceKernels {
+
+    /**
+     * @param prices array of stock prices (float), not empty
+     * @return average price
+     */
+    float average(float[] prices);
+
+    /**
+     * @param prices array of stock prices (float), not empty
+     * @return maximum price
+     */
+    float maximum(float[] prices);
+
+    /**
+     * @param prices      array of stock prices (float)
+     * @param targetPrice price to search for
+     * @return number of occurrences of targetPrice
+     */
+    int countOccurrences(float[] prices, float targetPrice);
+}
@@ -0,0 +1,209 @@
+package unit4;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Prices of many symbols over the same days, stored as one flat row-major
+ * matrix: the price of symbol s on day d is at index {@code s * days + d}.
+ *
+ * The matrix lives either in a heap float[] or off-heap in a direct buffer.
+ * {@link #analyze(float)} computes every StockPrice statistic for all
+ * symbols in parallel on the common fork-join pool. Rows are split into
+ * chunks of roughly equal size, and idle workers steal them. Results come
+ * back as one primitive array per statistic, so no object is allocated per
+ * symbol. Each symbol's results are identical to calling the StockPrice
+ * method on that symbol's row.
+ */
+public class PriceMatrix {
+    /** Target number of prices per parallel task. */
+    private static final int PRICES_PER_TASK = 1 << 15;
+
+    private final FloatBuffer data;
+    private final int symbols;
+    private final int days;
+
+    private PriceMatrix(FloatBuffer data, int symbols, int days) {
+        if (symbols < 0 || days <= 0 || (long) symbols * days > data.capacity()) {
+            throw new IllegalArgumentException("Matrix shape does not fit the data");
+        }
+        this.data = data;
+        this.symbols = symbols;
+        this.days = days;
+    }
+
+    /**
+     * Wraps a heap array of prices without copying it.
+     *
+     * @param prices  row-major prices, at least symbols * days long
+     * @param symbols number of rows
+     * @param days    number of prices per row
+     * @return the matrix
+     */
+    public static PriceMatrix wrap(float[] prices, int symbols, int days) {
+        return new PriceMatrix(FloatBuffer.wrap(prices), symbols, days);
+    }
+
+    /**
+     * Wraps a buffer of prices, for example a direct buffer or a mapped
+     * {@link PriceFile} column, without copying it.
+     *
+     * @param prices  row-major prices starting at index 0
+     * @param symbols number of rows
+     * @param days    number of prices per row
+     * @return the matrix
+     */
+    public static PriceMatrix wrap(FloatBuffer prices, int symbols, int days) {
+        return new PriceMatrix(prices, symbols, days);
+    }
+
+    /**
+     * Allocates an off-heap matrix filled with 0.0.
+     *
+     * @param symbols number of rows
+     * @param days    number of prices per row
+     * @return the matrix
+     */
+    public static PriceMatrix allocateDirect(int symbols, int days) {
+        long bytes = (long) symbols * days * Float.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Matrix too large for one buffer");
+        }
+        FloatBuffer buffer = ByteBuffer.allocateDirect((int) bytes)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        return new PriceMatrix(buffer, symbols, days);
+    }
+
+    /**
+     * @return number of symbols (rows)
+     */
+    public int getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * @return number of days (columns)
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * @param symbol row index
+     * @param day    column index
+     * @return the price of symbol on day
+     */
+    public float get(int symbol, int day) {
+        return data.get(symbol * days + day);
+    }
+
+    /**
+     * @param symbol row index
+     * @param day    column index
+     * @param price  the new price
+     */
+    public void set(int symbol, int day, float price) {
+        data.put(symbol * days + day, price);
+    }
+
+    /**
+     * Per-symbol results in struct-of-arrays form: element s of every
+     * array belongs to symbol s.
+     */
+    public static final class Results {
+        /** Average price per symbol. */
+        public final float[] average;
+        /** Maximum price per symbol. */
+        public final float[] maximum;
+        /** Occurrences of the target price per symbol. */
+        public final int[] occurrences;
+
+        Results(int symbols) {
+            average = new float[symbols];
+            maximum = new float[symbols];
+            occurrences = new int[symbols];
+        }
+    }
+
+    /**
+     * Computes average, maximum and occurrences of targetPrice for every
+     * symbol in parallel, reading each row only once.
+     *
+     * @param targetPrice price whose occurrences are counted
+     * @return per-symbol results
+     * @see StockPrice#calculateAveragePrice(float[])
+     * @see StockPrice#findMaximumPrice(float[])
+     * @see StockPrice#countOccurrences(float[], float)
+     */
+    public Results analyze(float targetPrice) {
+        Results results = new Results(symbols);
+
+        forEachRowChunk((from, to) -> {
+            for (int s = from; s < to; s++) {
+                int start = s * days;
+                float sum = 0.0f;
+                float max = data.get(start);
+                int count = 0;
+                for (int i = start; i < start + days; i++) {
+                    float price = data.get(i);
+                    sum += price;
+                    if (price > max) {
+                        max = price;
+                    }
+                    if (price == targetPrice) {
+                        count++;
+                    }
+                }
+                results.average[s] = sum / days;
+                results.maximum[s] = max;
+                results.occurrences[s] = count;
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Writes the cumulative sum of every row into the same row of another
+     * matrix of the same shape, in parallel. The output may be this matrix
+     * for an in-place sum.
+     *
+     * @param out matrix receiving the cumulative sums
+     * @see StockPrice#computeCumulativeSum(float[], float[])
+     */
+    public void cumulativeSums(PriceMatrix out) {
+        if (out.symbols != symbols || out.days != days) {
+            throw new IllegalArgumentException("Output matrix must have the same shape");
+        }
+
+        forEachRowChunk((from, to) -> {
+            for (int s = from; s < to; s++) {
+                int start = s * days;
+                float runningSum = 0.0f;
+                for (int i = start; i < start + days; i++) {
+                    runningSum += data.get(i);
+                    out.data.put(i, runningSum);
+                }
+            }
+        });
+    }
+
+    /**
+     * Splits the rows into chunks of about PRICES_PER_TASK prices and runs
+     * them on the fork-join pool.
+     */
+    private void forEachRowChunk(RowRange body) {
+        int rowsPerChunk = Math.max(1, PRICES_PER_TASK / days);
+        int chunks = (symbols + rowsPerChunk - 1) / rowsPerChunk;
+        StockPrice.forEachBlock(chunks, c -> {
+            int from = c * rowsPerChunk;
+            body.run(from, Math.min(from + rowsPerChunk, symbols));
+        });
+    }
+
+    private interface RowRange {
+        void run(int fromRow, int toRow);
+    }
+}
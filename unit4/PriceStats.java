@@ -0,0 +1,218 @@
+package unit4;
+
+/**
+ * Single-pass accumulator for stock price statistics.
+ *
+ * Count, sum, mean, minimum, maximum and variance are all updated together
+ * as each price is added, so one scan of the data replaces the separate
+ * passes of {@link StockPrice#calculateAveragePrice(float[])} and
+ * {@link StockPrice#findMaximumPrice(float[])}.
+ * The sum uses Neumaier compensated summation and the mean and variance use
+ * Welford's update, so precision does not degrade on very long series.
+ * Two accumulators built over different parts of the data can be merged,
+ * which lets the work be split across threads or file chunks.
+ *
+ * Instances are not thread-safe; give each thread its own and merge them.
+ */
+public class PriceStats {
+    private long count;
+    private double sum;
+    private double compensation; // Low-order bits lost by sum (Neumaier)
+    private double mean;
+    private double m2; // Sum of squared distances from the mean (Welford)
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+
+    /**
+     * Builds the statistics of a whole array in one pass.
+     *
+     * @param prices array of stock prices (float)
+     * @return statistics of prices
+     */
+    public static PriceStats of(float[] prices) {
+        return new PriceStats().addAll(prices, 0, prices.length);
+    }
+
+    /**
+     * Builds the statistics of a whole array by scanning blocks of it in
+     * parallel on the common fork-join pool and merging the partial results.
+     *
+     * @param prices array of stock prices (float)
+     * @return statistics of prices
+     */
+    public static PriceStats ofParallel(float[] prices) {
+        int n = prices.length;
+        if (n < StockPrice.PARALLEL_THRESHOLD) {
+            return of(prices);
+        }
+
+        int blocks = StockPrice.blockCount(n);
+        int blockSize = (n + blocks - 1) / blocks;
+        PriceStats[] partials = new PriceStats[blocks];
+
+        StockPrice.forEachBlock(blocks, b -> {
+            int from = b * blockSize;
+            partials[b] = new PriceStats().addAll(prices, from, Math.min(from + blockSize, n));
+        });
+
+        PriceStats total = new PriceStats();
+        for (PriceStats partial : partials) {
+            total.merge(partial);
+        }
+        return total;
+    }
+
+    /**
+     * Adds one price to the statistics.
+     *
+     * @param price the price to add
+     * @return this accumulator
+     */
+    public PriceStats add(float price) {
+        count++;
+        addToSum(price);
+
+        double delta = price - mean;
+        mean += delta / count;
+        m2 += delta * (price - mean);
+
+        if (price < min) {
+            min = price;
+        }
+        if (price > max) {
+            max = price;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a range of prices to the statistics.
+     *
+     * @param prices array of stock prices (float)
+     * @param from   first index to add (inclusive)
+     * @param to     last index to add (exclusive)
+     * @return this accumulator
+     */
+    public PriceStats addAll(float[] prices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(prices[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Merges the statistics of another accumulator into this one, as if all
+     * of its prices had been added here. The other accumulator is unchanged.
+     *
+     * @param other the accumulator to merge
+     * @return this accumulator
+     */
+    public PriceStats merge(PriceStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            sum = other.sum;
+            compensation = other.compensation;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        // Chan et al. parallel combination of Welford states
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+
+        addToSum(other.sum);
+        addToSum(other.compensation);
+
+        if (other.min < min) {
+            min = other.min;
+        }
+        if (other.max > max) {
+            max = other.max;
+        }
+        return this;
+    }
+
+    /**
+     * Neumaier compensated addition into sum/compensation.
+     */
+    private void addToSum(double value) {
+        double t = sum + value;
+        if (Math.abs(sum) >= Math.abs(value)) {
+            compensation += (sum - t) + value;
+        } else {
+            compensation += (value - t) + sum;
+        }
+        sum = t;
+    }
+
+    /**
+     * @return number of prices added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return compensated sum of all prices
+     */
+    public double getSum() {
+        return sum + compensation;
+    }
+
+    /**
+     * @return average price, or NaN if no prices were added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return minimum price, or NaN if no prices were added
+     */
+    public float getMin() {
+        return count == 0 ? Float.NaN : min;
+    }
+
+    /**
+     * @return maximum price, or NaN if no prices were added
+     */
+    public float getMax() {
+        return count == 0 ? Float.NaN : max;
+    }
+
+    /**
+     * @return population variance, or NaN if no prices were added
+     */
+    public double getVariance() {
+        return count == 0 ? Double.NaN : m2 / count;
+    }
+
+    /**
+     * @return sample variance (divides by count - 1), or NaN with fewer than two prices
+     */
+    public double getSampleVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    /**
+     * @return population standard deviation, or NaN if no prices were added
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    @Override
+    public String toString() {
+        return "PriceStats{count=" + count + ", mean=" + getMean() + ", min=" + getMin()
+                + ", max=" + getMax() + ", variance=" + getVariance() + "}";
+    }
+}
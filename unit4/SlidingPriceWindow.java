@@ -0,0 +1,208 @@
+package unit4;
+
+/**
+ * Aggregates over the most recent ticks of a feed: either the last N ticks
+ * or the ticks of the last T milliseconds.
+ *
+ * Ticks live in a ring buffer, and the window maximum is kept with a
+ * monotonic deque of tick sequence numbers whose prices decrease from front
+ * to back. Adding a tick and evicting expired ones is O(1) amortized, and
+ * every query is O(1).
+ *
+ * The window sum is kept in double precision, so the average can differ in
+ * the last bits from {@link StockPrice#calculateAveragePrice(float[])} over
+ * the same ticks. Instances are not thread-safe.
+ */
+public class SlidingPriceWindow {
+    private final int maxTicks;
+    private final long spanMillis;
+
+    // Ring buffer: the tick with sequence s lives at slot s & (capacity - 1)
+    private float[] prices;
+    private long[] timestamps;
+    private long firstSeq;
+    private long nextSeq;
+
+    // Monotonic deque of sequences, front = current window maximum
+    private long[] maxDeque;
+    private int dequeHead;
+    private int dequeSize;
+
+    private double sum;
+    private final LongIntHashMap occurrences = new LongIntHashMap();
+
+    private SlidingPriceWindow(int maxTicks, long spanMillis, int initialCapacity) {
+        this.maxTicks = maxTicks;
+        this.spanMillis = spanMillis;
+        int capacity = Integer.highestOneBit(Math.max(2, initialCapacity) - 1) << 1;
+        this.prices = new float[capacity];
+        this.timestamps = new long[capacity];
+        this.maxDeque = new long[capacity];
+    }
+
+    /**
+     * Creates a window over the last n ticks.
+     *
+     * @param n number of ticks to keep
+     * @return the window
+     */
+    public static SlidingPriceWindow lastTicks(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("Window size must be greater than 0");
+        }
+        return new SlidingPriceWindow(n, Long.MAX_VALUE, n);
+    }
+
+    /**
+     * Creates a window over the ticks of the last spanMillis milliseconds.
+     * The ring buffer grows as needed to hold every tick in the span.
+     *
+     * @param spanMillis window length in milliseconds
+     * @return the window
+     */
+    public static SlidingPriceWindow lastMillis(long spanMillis) {
+        if (spanMillis <= 0) {
+            throw new IllegalArgumentException("Window span must be greater than 0");
+        }
+        return new SlidingPriceWindow(Integer.MAX_VALUE, spanMillis, 64);
+    }
+
+    /**
+     * Adds a tick stamped with the current time.
+     *
+     * @param price the new price
+     * @throws IllegalArgumentException if the price is NaN
+     */
+    public void add(float price) {
+        add(System.currentTimeMillis(), price);
+    }
+
+    /**
+     * Adds a tick. Timestamps must not decrease from one tick to the next.
+     *
+     * @param timestampMillis time of the tick in milliseconds
+     * @param price           the new price
+     * @throws IllegalArgumentException if the price is NaN
+     */
+    public void add(long timestampMillis, float price) {
+        // A NaN would poison the running sum and the max deque, since it
+        // compares false against every other price
+        if (Float.isNaN(price)) {
+            throw new IllegalArgumentException("Price must not be NaN");
+        }
+        advanceTo(timestampMillis);
+        if (size() == maxTicks) {
+            evictOldest();
+        }
+        if (size() == prices.length) {
+            grow();
+        }
+
+        long seq = nextSeq++;
+        int slot = (int) (seq & (prices.length - 1));
+        prices[slot] = price;
+        timestamps[slot] = timestampMillis;
+        sum += price;
+        occurrences.add(LongIntHashMap.priceKey(price), 1);
+
+        // Drop every tick that can no longer be the maximum
+        while (dequeSize > 0 && priceAt(dequeBack()) <= price) {
+            dequeSize--;
+        }
+        maxDeque[(dequeHead + dequeSize++) & (maxDeque.length - 1)] = seq;
+    }
+
+    /**
+     * Evicts ticks that have fallen out of a time window without adding a
+     * new one, for when the feed goes quiet. Has no effect on tick windows.
+     *
+     * @param nowMillis the current time in milliseconds
+     */
+    public void advanceTo(long nowMillis) {
+        if (spanMillis == Long.MAX_VALUE) {
+            return;
+        }
+        long oldestAllowed = nowMillis - spanMillis;
+        while (size() > 0 && timestamps[(int) (firstSeq & (prices.length - 1))] <= oldestAllowed) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+        long seq = firstSeq++;
+        float price = priceAt(seq);
+        sum -= price;
+        occurrences.add(LongIntHashMap.priceKey(price), -1);
+        if (dequeSize > 0 && maxDeque[dequeHead] == seq) {
+            dequeHead = (dequeHead + 1) & (maxDeque.length - 1);
+            dequeSize--;
+        }
+        if (size() == 0) {
+            sum = 0.0; // Clear any rounding drift once the window is empty
+        }
+    }
+
+    private void grow() {
+        int capacity = prices.length << 1;
+        float[] newPrices = new float[capacity];
+        long[] newTimestamps = new long[capacity];
+        for (long seq = firstSeq; seq < nextSeq; seq++) {
+            newPrices[(int) (seq & (capacity - 1))] = prices[(int) (seq & (prices.length - 1))];
+            newTimestamps[(int) (seq & (capacity - 1))] = timestamps[(int) (seq & (prices.length - 1))];
+        }
+
+        long[] newDeque = new long[capacity];
+        for (int i = 0; i < dequeSize; i++) {
+            newDeque[i] = maxDeque[(dequeHead + i) & (maxDeque.length - 1)];
+        }
+
+        prices = newPrices;
+        timestamps = newTimestamps;
+        maxDeque = newDeque;
+        dequeHead = 0;
+    }
+
+    private float priceAt(long seq) {
+        return prices[(int) (seq & (prices.length - 1))];
+    }
+
+    private long dequeBack() {
+        return maxDeque[(dequeHead + dequeSize - 1) & (maxDeque.length - 1)];
+    }
+
+    /**
+     * @return number of ticks currently in the window
+     */
+    public int size() {
+        return (int) (nextSeq - firstSeq);
+    }
+
+    /**
+     * @return sum of the prices in the window
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return average price in the window, or NaN if it is empty
+     */
+    public float getAveragePrice() {
+        return size() == 0 ? Float.NaN : (float) (sum / size());
+    }
+
+    /**
+     * @return maximum price in the window, or NaN if it is empty
+     */
+    public float getMaximumPrice() {
+        return dequeSize == 0 ? Float.NaN : priceAt(maxDeque[dequeHead]);
+    }
+
+    /**
+     * @param targetPrice price to search for
+     * @return number of ticks in the window equal to targetPrice
+     */
+    public int countOccurrences(float targetPrice) {
+        return occurrences.get(LongIntHashMap.priceKey(targetPrice));
+    }
+}
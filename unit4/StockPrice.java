@@ -1,8 +1,38 @@
 package unit4;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
 
 public class StockPrice {
 
+    /**
+     * Arrays shorter than this are scanned sequentially by the parallel
+     * cumulative sum, since splitting them costs more than it saves.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Selects which implementation the aggregate methods use.
+     */
+    public enum KernelMode {
+        /** Plain scalar loops. */
+        SCALAR,
+        /** Java Vector API (SIMD) kernels, falling back to SCALAR when unavailable. */
+        VECTOR
+    }
+
+    /**
+     * Vector API kernels, or null when unit4-vector is not on the class
+     * path or jdk.incubator.vector is not available in this JVM (it needs
+     * --add-modules jdk.incubator.vector).
+     */
+    private static final PriceKernels VECTOR_KERNELS = loadVectorKernels();
+
     /**
      * Calculates the average stock price from an array of prices.
      *
@@ -56,6 +86,172 @@ public class StockPrice {
         return count;
     }
 
+    /**
+     * Calculates the average of the prices between the buffer's position and
+     * limit. Works directly on memory-mapped buffers such as the columns of a
+     * {@link PriceFile}; the buffer's position is not changed.
+     *
+     * @param prices buffer of stock prices
+     * @return average price
+     */
+    public static float calculateAveragePrice(FloatBuffer prices) {
+        return sumPrices(prices, 0.0f) / prices.remaining();
+    }
+
+    /**
+     * Finds the maximum of the prices between the buffer's position and limit.
+     *
+     * @param prices buffer of stock prices
+     * @return maximum price
+     */
+    public static float findMaximumPrice(FloatBuffer prices) {
+        return maximumPrice(prices, prices.get(prices.position()));
+    }
+
+    /**
+     * Counts how many times a target price appears between the buffer's
+     * position and limit.
+     *
+     * @param prices      buffer of stock prices
+     * @param targetPrice price to search for
+     * @return number of occurrences of targetPrice
+     */
+    public static int countOccurrences(FloatBuffer prices, float targetPrice) {
+        int count = 0;
+
+        for (int i = prices.position(); i < prices.limit(); i++) {
+            if (prices.get(i) == targetPrice) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Computes the cumulative sum of the prices between the buffer's position
+     * and limit, writing it to out starting at out's position. Neither
+     * buffer's position is changed.
+     *
+     * @param prices buffer of stock prices
+     * @param out    buffer receiving the cumulative sums
+     */
+    public static void computeCumulativeSum(FloatBuffer prices, FloatBuffer out) {
+        checkOutputLength(prices.remaining(), out.remaining());
+        cumulativeSum(prices, out, 0.0f);
+    }
+
+    /**
+     * Adds the remaining prices of a buffer to a running float sum, in the
+     * same order as {@link #calculateAveragePrice(float[])}.
+     */
+    static float sumPrices(FloatBuffer prices, float runningSum) {
+        for (int i = prices.position(); i < prices.limit(); i++) {
+            runningSum += prices.get(i);
+        }
+        return runningSum;
+    }
+
+    /**
+     * Continues a maximum scan over the remaining prices of a buffer.
+     */
+    static float maximumPrice(FloatBuffer prices, float max) {
+        for (int i = prices.position(); i < prices.limit(); i++) {
+            if (prices.get(i) > max) {
+                max = prices.get(i);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Continues a cumulative sum over the remaining prices of a buffer and
+     * returns the running sum reached at the end.
+     */
+    static float cumulativeSum(FloatBuffer prices, FloatBuffer out, float runningSum) {
+        int offset = out.position() - prices.position();
+        for (int i = prices.position(); i < prices.limit(); i++) {
+            runningSum += prices.get(i);
+            out.put(i + offset, runningSum);
+        }
+        return runningSum;
+    }
+
+    /**
+     * Calculates the average stock price using the requested kernel.
+     *
+     * @param prices array of stock prices (float)
+     * @param mode   kernel implementation to use
+     * @return average price
+     */
+    public static float calculateAveragePrice(float[] prices, KernelMode mode) {
+        PriceKernels kernels = kernelsFor(mode);
+        if (kernels == null || prices.length == 0) {
+            return calculateAveragePrice(prices);
+        }
+        return kernels.average(prices);
+    }
+
+    /**
+     * Finds the maximum stock price using the requested kernel.
+     *
+     * @param prices array of stock prices (float)
+     * @param mode   kernel implementation to use
+     * @return maximum price
+     */
+    public static float findMaximumPrice(float[] prices, KernelMode mode) {
+        PriceKernels kernels = kernelsFor(mode);
+        if (kernels == null || prices.length == 0) {
+            return findMaximumPrice(prices);
+        }
+        return kernels.maximum(prices);
+    }
+
+    /**
+     * Counts how many times a target price appears using the requested kernel.
+     *
+     * @param prices      array of stock prices (float)
+     * @param targetPrice price to search for
+     * @param mode        kernel implementation to use
+     * @return number of occurrences of targetPrice
+     */
+    public static int countOccurrences(float[] prices, float targetPrice, KernelMode mode) {
+        PriceKernels kernels = kernelsFor(mode);
+        if (kernels == null) {
+            return countOccurrences(prices, targetPrice);
+        }
+        return kernels.countOccurrences(prices, targetPrice);
+    }
+
+    /**
+     * Tells whether {@link KernelMode#VECTOR} really runs on the Vector API
+     * in this JVM, rather than falling back to the scalar loops.
+     *
+     * @return true if the vector kernels are available
+     */
+    public static boolean isVectorApiAvailable() {
+        return VECTOR_KERNELS != null;
+    }
+
+    private static PriceKernels kernelsFor(KernelMode mode) {
+        return mode == KernelMode.VECTOR ? VECTOR_KERNELS : null;
+    }
+
+    /**
+     * Loads the Vector API kernels by name so that this class compiles
+     * without the unit4-vector sources and runs on JVMs where the incubator
+     * module is not present.
+     */
+    private static PriceKernels loadVectorKernels() {
+        try {
+            return (PriceKernels) Class.forName("unit4.VectorPriceKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
     /**
      * Computes the cumulative sum of stock prices stored in an ArrayList.
      * Example: [10, 20, 30] -> [10, 30, 60]
@@ -75,10 +271,257 @@ public class StockPrice {
         return cumulative;
     }
 
+    /**
+     * Computes the cumulative sum of stock prices without boxing.
+     * Example: [10, 20, 30] -> [10, 30, 60]
+     *
+     * @param prices array of stock prices (float)
+     * @return new array with cumulative sums
+     */
+    public static float[] computeCumulativeSum(float[] prices) {
+        return computeCumulativeSum(prices, new float[prices.length]);
+    }
+
+    /**
+     * Computes the cumulative sum of stock prices into a caller-supplied buffer.
+     * No objects are allocated, so the same buffer can be reused across calls.
+     * The output may be the input array itself for an in-place sum.
+     *
+     * @param prices array of stock prices (float)
+     * @param out    buffer receiving the cumulative sums, at least prices.length long
+     * @return the out buffer
+     */
+    public static float[] computeCumulativeSum(float[] prices, float[] out) {
+        checkOutputLength(prices.length, out.length);
+        float runningSum = 0.0f;
+
+        for (int i = 0; i < prices.length; i++) {
+            runningSum += prices[i];
+            out[i] = runningSum;
+        }
+
+        return out;
+    }
+
+    /**
+     * Computes the cumulative sum of stock prices in double precision.
+     *
+     * @param prices array of stock prices (double)
+     * @return new array with cumulative sums
+     */
+    public static double[] computeCumulativeSum(double[] prices) {
+        return computeCumulativeSum(prices, new double[prices.length]);
+    }
+
+    /**
+     * Computes the cumulative sum of stock prices into a caller-supplied buffer.
+     *
+     * @param prices array of stock prices (double)
+     * @param out    buffer receiving the cumulative sums, at least prices.length long
+     * @return the out buffer
+     */
+    public static double[] computeCumulativeSum(double[] prices, double[] out) {
+        checkOutputLength(prices.length, out.length);
+        double runningSum = 0.0;
+
+        for (int i = 0; i < prices.length; i++) {
+            runningSum += prices[i];
+            out[i] = runningSum;
+        }
+
+        return out;
+    }
+
+    /**
+     * Computes the cumulative sum using a parallel prefix scan on the common
+     * fork-join pool. The array is cut into blocks; each block is scanned
+     * locally, the block totals are chained, and each block is then shifted
+     * by the total of the blocks before it.
+     * Because additions are grouped per block, the float result can differ
+     * from {@link #computeCumulativeSum(float[], float[])} in the last bits.
+     *
+     * @param prices array of stock prices (float)
+     * @param out    buffer receiving the cumulative sums, at least prices.length long
+     * @return the out buffer
+     */
+    public static float[] parallelCumulativeSum(float[] prices, float[] out) {
+        checkOutputLength(prices.length, out.length);
+        int n = prices.length;
+        if (n < PARALLEL_THRESHOLD) {
+            return computeCumulativeSum(prices, out);
+        }
+
+        int blocks = blockCount(n);
+        int blockSize = (n + blocks - 1) / blocks;
+
+        // Pass 1: local prefix sum inside each block
+        forEachBlock(blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, n);
+            float runningSum = 0.0f;
+            for (int i = from; i < to; i++) {
+                runningSum += prices[i];
+                out[i] = runningSum;
+            }
+        });
+
+        // Chain the block totals sequentially (one value per block)
+        float[] offsets = new float[blocks];
+        for (int b = 1; b < blocks; b++) {
+            offsets[b] = offsets[b - 1] + out[Math.min(b * blockSize, n) - 1];
+        }
+
+        // Pass 2: shift every block but the first by its offset
+        forEachBlock(blocks, b -> {
+            if (b == 0) {
+                return;
+            }
+            float offset = offsets[b];
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, n);
+            for (int i = from; i < to; i++) {
+                out[i] += offset;
+            }
+        });
+
+        return out;
+    }
+
+    /**
+     * Computes the cumulative sum in double precision using a parallel prefix scan.
+     *
+     * @param prices array of stock prices (double)
+     * @param out    buffer receiving the cumulative sums, at least prices.length long
+     * @return the out buffer
+     * @see #parallelCumulativeSum(float[], float[])
+     */
+    public static double[] parallelCumulativeSum(double[] prices, double[] out) {
+        checkOutputLength(prices.length, out.length);
+        int n = prices.length;
+        if (n < PARALLEL_THRESHOLD) {
+            return computeCumulativeSum(prices, out);
+        }
+
+        int blocks = blockCount(n);
+        int blockSize = (n + blocks - 1) / blocks;
+
+        forEachBlock(blocks, b -> {
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, n);
+            double runningSum = 0.0;
+            for (int i = from; i < to; i++) {
+                runningSum += prices[i];
+                out[i] = runningSum;
+            }
+        });
+
+        double[] offsets = new double[blocks];
+        for (int b = 1; b < blocks; b++) {
+            offsets[b] = offsets[b - 1] + out[Math.min(b * blockSize, n) - 1];
+        }
+
+        forEachBlock(blocks, b -> {
+            if (b == 0) {
+                return;
+            }
+            double offset = offsets[b];
+            int from = b * blockSize;
+            int to = Math.min(from + blockSize, n);
+            for (int i = from; i < to; i++) {
+                out[i] += offset;
+            }
+        });
+
+        return out;
+    }
+
+    /**
+     * Picks how many blocks to split n elements into: a few per worker so
+     * work stealing can even out slow blocks, but never tiny blocks.
+     */
+    static int blockCount(int n) {
+        int perWorker = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(1, Math.min(perWorker, n / (PARALLEL_THRESHOLD / 4)));
+    }
+
+    /**
+     * Runs body once for every block index in [0, blocks) on the common
+     * fork-join pool and waits for all of them to finish. Also used to
+     * process many independent series (one block per series) in parallel.
+     */
+    static void forEachBlock(int blocks, IntConsumer body) {
+        ForkJoinPool.commonPool().invoke(new BlockTask(0, blocks, body));
+    }
+
+    private static void checkOutputLength(int inputLength, int outputLength) {
+        if (outputLength < inputLength) {
+            throw new IllegalArgumentException(
+                    "Output buffer too small: " + outputLength + " < " + inputLength);
+        }
+    }
+
+    /**
+     * Fork-join task that splits a range of block indices in halves
+     * until a single block is left, then runs it.
+     */
+    private static final class BlockTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        BlockTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    body.accept(from);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BlockTask(from, mid, body), new BlockTask(mid, to, body));
+        }
+    }
+
+    /**
+     * Prints the statistics of every column of a memory-mapped price file.
+     *
+     * @param path the price file
+     * @throws IOException if the file cannot be read
+     */
+    private static void analyzePriceFile(Path path) throws IOException {
+        try (PriceFile file = PriceFile.open(path)) {
+            System.out.println("Price file: " + path + " (" + file.getRowCount() + " rows)");
+            for (int c = 0; c < file.getColumnCount(); c++) {
+                PriceFile.Column column = file.column(c);
+                System.out.println("Column " + column.getName() + ":");
+                if (column.size() == 0) {
+                    System.out.println("  No prices.");
+                    continue;
+                }
+                System.out.println("  Average price: " + column.average());
+                System.out.println("  Maximum price: " + column.maximum());
+            }
+        }
+    }
+
     /**
      * Example main method to test the implemented methods.
+     * Pass the path of a price file to analyze it instead of the sample data.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            analyzePriceFile(Path.of(args[0]));
+            return;
+        }
+
         // Array with 10 days of opening stock prices
         float[] openingPrices = {150.5f, 152.3f, 149.8f, 151.0f, 153.2f, 154.1f, 155.0f, 156.3f, 158.9f, 160.2f};
 
@@ -93,11 +536,37 @@ public class StockPrice {
         float maxPrice = findMaximumPrice(openingPrices);
         int occurrences = countOccurrences(openingPrices, 153.2f);
         ArrayList<Float> cumulativeSumList = computeCumulativeSum(pricesList);
+        float[] cumulativeSums = computeCumulativeSum(openingPrices, new float[openingPrices.length]);
 
         // Print results
         System.out.println("Average price: " + averagePrice);
         System.out.println("Maximum price: " + maxPrice);
         System.out.println("Occurrences of 153.2: " + occurrences);
         System.out.println("Cumulative sum list: " + cumulativeSumList);
+        System.out.println("Cumulative sum array: " + Arrays.toString(cumulativeSums));
+        System.out.println("Vector API available: " + isVectorApiAvailable());
+        System.out.println("Maximum price (vector kernel): " + findMaximumPrice(openingPrices, KernelMode.VECTOR));
+        System.out.println("Single-pass statistics: " + PriceStats.of(openingPrices));
+
+        // Feed the same prices one tick at a time
+        StockPriceStream stream = new StockPriceStream();
+        SlidingPriceWindow lastFive = SlidingPriceWindow.lastTicks(5);
+        for (float price : openingPrices) {
+            stream.add(price);
+            lastFive.add(price);
+        }
+        System.out.println("Streaming average: " + stream.getAveragePrice());
+        System.out.println("Maximum of the last 5 ticks: " + lastFive.getMaximumPrice());
+
+        // Index the prices once, then answer occurrence queries in O(1)
+        PriceFrequencyIndex centIndex = PriceFrequencyIndex.bucketed(openingPrices, 0.01);
+        System.out.println("Occurrences of 153.20 (to the cent): " + centIndex.countOccurrences(153.2f));
+
+        // Same prices in whole cents: exact sums and equality
+        int[] cents = FixedPointPrices.toCompactTicks(openingPrices, 100);
+        System.out.println("Average price (fixed-point): "
+                + FixedPointPrices.calculateAveragePrice(cents) / 100);
+        System.out.println("Occurrences of 153.20 (fixed-point): "
+                + FixedPointPrices.countOccurrences(cents, 15320));
     }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package unit4;
+
+/**
+ * Incremental version of the StockPrice aggregates for live tick feeds.
+ *
+ * Ticks are added one at a time or in batches, and the average, maximum,
+ * occurrence counts and cumulative sum are kept up to date in O(1) per tick,
+ * so nothing is ever rescanned. After adding a series of ticks, each getter
+ * returns exactly what the matching {@link StockPrice} method returns for
+ * an array holding those ticks.
+ *
+ * For aggregates over only the most recent ticks, see {@link SlidingPriceWindow}.
+ * Instances are not thread-safe.
+ */
+public class StockPriceStream {
+    private long count;
+    private float runningSum;
+    private float max = Float.NaN;
+    private final LongIntHashMap occurrences = new LongIntHashMap();
+
+    /**
+     * Adds one tick.
+     *
+     * @param price the new price
+     */
+    public void add(float price) {
+        if (count == 0 || price > max) {
+            max = price;
+        }
+        count++;
+        runningSum += price;
+        if (price == price) { // NaN never matches, so it is not counted
+            occurrences.add(LongIntHashMap.priceKey(price), 1);
+        }
+    }
+
+    /**
+     * Adds a batch of ticks in order.
+     *
+     * @param prices array of stock prices (float)
+     * @param from   first index to add (inclusive)
+     * @param to     last index to add (exclusive)
+     */
+    public void addAll(float[] prices, int from, int to) {
+        for (int i = from; i < to; i++) {
+            add(prices[i]);
+        }
+    }
+
+    /**
+     * @return number of ticks added so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return average price of all ticks, or NaN before the first tick
+     * @see StockPrice#calculateAveragePrice(float[])
+     */
+    public float getAveragePrice() {
+        return runningSum / count;
+    }
+
+    /**
+     * @return maximum price of all ticks, or NaN before the first tick
+     * @see StockPrice#findMaximumPrice(float[])
+     */
+    public float getMaximumPrice() {
+        return max;
+    }
+
+    /**
+     * @param targetPrice price to search for
+     * @return number of ticks equal to targetPrice
+     * @see StockPrice#countOccurrences(float[], float)
+     */
+    public int countOccurrences(float targetPrice) {
+        return occurrences.get(LongIntHashMap.priceKey(targetPrice));
+    }
+
+    /**
+     * @return the cumulative sum after the latest tick, i.e. the last element
+     *         {@link StockPrice#computeCumulativeSum(float[])} would produce
+     */
+    public float getCumulativeSum() {
+        return runningSum;
+    }
+}
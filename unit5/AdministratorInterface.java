@@ -1,26 +1,51 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 
 /**
  * Administrator Interface
  * 
  * This class provides an interactive command-line interface for administrators
  * to interact with the Course Enrollment and Grade Management System.
+ * Data is saved in the course-data directory (or the one given with --data <dir>)
+ * and restored the next time the program starts.
+ * With --batch <file> (or --batch - for standard input), the commands in the file
+ * are run by BatchRunner instead of showing the menu.
  */
 public class AdministratorInterface {
-    private static ArrayList<Student> students = new ArrayList<>();
+    private static final String DEFAULT_DATA_DIRECTORY = "course-data";
+    
     private static Scanner scanner = new Scanner(System.in);
     
     /**
      * Main method to run the administrator interface
      * 
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments: optionally --data followed by the data directory,
+     *             and --batch followed by a command file
      */
     public static void main(String[] args) {
+        String batchFile = optionValue(args, "--batch");
+        if (batchFile != null) {
+            runBatch(batchFile, dataDirectory(args));
+            return;
+        }
+        
         System.out.println("=== Course Enrollment and Grade Management System ===");
         System.out.println("Welcome, Administrator!\n");
         
+        CourseStore store = openStore(dataDirectory(args));
+        
         boolean running = true;
         
         while (running) {
@@ -50,6 +75,15 @@ public class AdministratorInterface {
                     displayEnrollmentStats();
                     break;
                 case 8:
+                    displayCourseRoster();
+                    break;
+                case 9:
+                    displayLeaderboard();
+                    break;
+                case 10:
+                    dropStudent();
+                    break;
+                case 11:
                     running = false;
                     System.out.println("Thank you for using the system. Goodbye!");
                     break;
@@ -59,6 +93,99 @@ public class AdministratorInterface {
         }
         
         scanner.close();
+        closeStore(store);
+    }
+    
+    /**
+     * Reads the data directory from the command line arguments
+     * 
+     * @param args Command line arguments
+     * @return The directory given with --data, or the default one
+     */
+    private static Path dataDirectory(String[] args) {
+        String directory = optionValue(args, "--data");
+        return Path.of(directory != null ? directory : DEFAULT_DATA_DIRECTORY);
+    }
+    
+    /**
+     * Reads the value of a command line option
+     * 
+     * @param args Command line arguments
+     * @param option The option name, such as --data
+     * @return The argument after the option, or null if the option is not given
+     */
+    private static String optionValue(String[] args, String option) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(option)) {
+                return args[i + 1];
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Runs the commands of a batch file without the interactive menu
+     * 
+     * @param batchFile The command file, or - for standard input
+     * @param directory The data directory
+     */
+    private static void runBatch(String batchFile, Path directory) {
+        CourseStore store = openStore(directory);
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        
+        try (BufferedReader in = batchFile.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(batchFile), StandardCharsets.UTF_8)) {
+            new BatchRunner(out).run(in);
+        } catch (IOException e) {
+            out.println("Error: could not read " + batchFile + " (" + e.getMessage() + ").");
+        }
+        
+        out.flush();
+        closeStore(store);
+    }
+    
+    /**
+     * Opens the data store and restores the saved courses, students and grades
+     * 
+     * @param directory The data directory
+     * @return The open store, or null if saved data could not be loaded
+     */
+    private static CourseStore openStore(Path directory) {
+        try {
+            long start = System.nanoTime();
+            CourseStore store = CourseStore.open(directory);
+            if (store.getRecoveredRecords() > 0) {
+                System.out.println("Restored " + store.getRecoveredRecords() + " saved records in "
+                        + (System.nanoTime() - start) / 1_000_000 + " ms.\n");
+            }
+            if (store.getSkippedRecords() > 0) {
+                System.out.println("Warning: " + store.getSkippedRecords()
+                        + " saved records could not be restored; the data may be damaged.\n");
+            }
+            return store;
+        } catch (IOException e) {
+            System.out.println("Warning: could not load saved data (" + e.getMessage() + ").");
+            System.out.println("Changes made in this session will not be saved.\n");
+            return null;
+        }
+    }
+    
+    /**
+     * Saves a final snapshot and closes the data store
+     * 
+     * @param store The store to close, or null if none is open
+     */
+    private static void closeStore(CourseStore store) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Warning: could not save data (" + e.getMessage() + ").");
+        }
     }
     
     /**
@@ -73,7 +200,10 @@ public class AdministratorInterface {
         System.out.println("5. Display all courses");
         System.out.println("6. Display all students");
         System.out.println("7. Display enrollment statistics");
-        System.out.println("8. Exit");
+        System.out.println("8. Display course roster");
+        System.out.println("9. Display top and bottom students");
+        System.out.println("10. Drop a student from a course");
+        System.out.println("11. Exit");
         System.out.println();
     }
     
@@ -142,16 +272,60 @@ public class AdministratorInterface {
             System.out.println("Course: " + course.getCourseName() + " (" + course.getCourseCode() + ")");
             System.out.println("Current Enrollment: " + course.getCurrentEnrollment() + "/" + course.getMaxCapacity() + "\n");
         } else {
-            if (!course.hasAvailableSpots()) {
-                System.out.println("Error: Course has reached maximum capacity.\n");
-            } else if (student.getEnrolledCourses().contains(course)) {
+            if (student.getEnrolledCourses().contains(course)) {
                 System.out.println("Error: Student is already enrolled in this course.\n");
+            } else if (course.getWaitlist().contains(student)) {
+                System.out.println("Error: Student is already on the waitlist for this course.\n");
             } else {
-                System.out.println("Error: Enrollment failed.\n");
+                System.out.println("The course is full (" + course.getWaitlist().size() + " students waiting).");
+                String answer = getStringInput("Add the student to the waitlist? (y/n): ");
+                if (answer.equalsIgnoreCase("y")) {
+                    byte result = CourseManagement.enrollOrWaitlist(student, course, 0);
+                    if (result == CourseManagement.ENROLLED) {
+                        System.out.println("A seat has just opened up: the student is now enrolled.\n");
+                    } else if (result == CourseManagement.WAITLISTED) {
+                        System.out.println("Student added to the waitlist. They will be enrolled automatically when a seat opens up.\n");
+                    } else {
+                        System.out.println("Error: Could not add the student to the waitlist.\n");
+                    }
+                } else {
+                    System.out.println();
+                }
             }
         }
     }
     
+    /**
+     * Handles dropping a student from a course
+     */
+    private static void dropStudent() {
+        System.out.println("\n--- Drop Student from Course ---");
+        
+        String studentId = getStringInput("Enter student ID: ");
+        Student student = CourseManagement.findStudentById(studentId);
+        if (student == null) {
+            System.out.println("Error: Student not found.\n");
+            return;
+        }
+        
+        String courseCode = getStringInput("Enter course code: ");
+        Course course = CourseManagement.findCourseByCode(courseCode);
+        if (course == null) {
+            System.out.println("Error: Course not found.\n");
+            return;
+        }
+        
+        if (CourseManagement.dropStudent(student, course)) {
+            System.out.println("Student dropped successfully!");
+            System.out.println("Current Enrollment: " + course.getCurrentEnrollment() + "/" + course.getMaxCapacity()
+                    + " (" + course.getWaitlist().size() + " students waiting)\n");
+        } else if (CourseManagement.leaveWaitlist(student, course)) {
+            System.out.println("Student removed from the waitlist.\n");
+        } else {
+            System.out.println("Error: Student is not enrolled in or waiting for this course.\n");
+        }
+    }
+    
     /**
      * Handles assigning a grade to a student for a course
      */
@@ -160,7 +334,7 @@ public class AdministratorInterface {
         
         // Get student
         String studentId = getStringInput("Enter student ID: ");
-        Student student = CourseManagement.findStudentById(students, studentId);
+        Student student = CourseManagement.findStudentById(studentId);
         
         if (student == null) {
             System.out.println("Error: Student not found.\n");
@@ -168,7 +342,7 @@ public class AdministratorInterface {
         }
         
         // Display student's enrolled courses
-        ArrayList<Course> enrolledCourses = student.getEnrolledCourses();
+        Set<Course> enrolledCourses = student.getEnrolledCourses();
         if (enrolledCourses.isEmpty()) {
             System.out.println("Error: Student is not enrolled in any courses.\n");
             return;
@@ -197,7 +371,7 @@ public class AdministratorInterface {
         
         double grade = getDoubleInput("Enter grade (0.0 - 100.0): ");
         
-        if (grade < 0.0 || grade > 100.0) {
+        if (!(grade >= 0.0 && grade <= 100.0)) {
             System.out.println("Error: Grade must be between 0.0 and 100.0.\n");
             return;
         }
@@ -221,7 +395,7 @@ public class AdministratorInterface {
         System.out.println("\n--- Calculate Overall Course Grade ---");
         
         String studentId = getStringInput("Enter student ID: ");
-        Student student = CourseManagement.findStudentById(students, studentId);
+        Student student = CourseManagement.findStudentById(studentId);
         
         if (student == null) {
             System.out.println("Error: Student not found.\n");
@@ -286,6 +460,7 @@ public class AdministratorInterface {
     private static void displayStudents() {
         System.out.println("\n--- All Students ---");
         
+        ArrayList<Student> students = CourseManagement.getStudents();
         if (students.isEmpty()) {
             System.out.println("No students registered.\n");
         } else {
@@ -298,6 +473,85 @@ public class AdministratorInterface {
         }
     }
     
+    /**
+     * Displays the students enrolled in a course
+     */
+    private static void displayCourseRoster() {
+        System.out.println("\n--- Course Roster ---");
+        
+        String courseCode = getStringInput("Enter course code: ");
+        Course course = CourseManagement.findCourseByCode(courseCode);
+        
+        if (course == null) {
+            System.out.println("Error: Course not found.\n");
+            return;
+        }
+        
+        ArrayList<Student> roster = CourseManagement.getRoster(course);
+        System.out.println("\n" + course.getCourseCode() + ": " + course.getCourseName()
+                + " (" + roster.size() + "/" + course.getMaxCapacity() + " enrolled)");
+        if (roster.isEmpty()) {
+            System.out.println("  No students enrolled.");
+        } else {
+            for (Student student : roster) {
+                System.out.println("  - " + student.getName() + " (ID: " + student.getId() + ")");
+            }
+        }
+        
+        List<Student> waiting = course.getWaitlist().getStudents();
+        if (!waiting.isEmpty()) {
+            System.out.println("Waitlist (" + waiting.size() + "):");
+            int position = 1;
+            for (Student student : waiting) {
+                System.out.println("  " + position + ". " + student.getName() + " (ID: " + student.getId() + ")");
+                position++;
+            }
+        }
+        
+        CourseAnalytics.GradeStats stats = CourseManagement.getAnalytics().getStats(course);
+        if (stats.getCount() > 0) {
+            System.out.println("Grades: " + stats.getCount() + " assigned"
+                    + ", mean " + String.format("%.2f", stats.getMean())
+                    + ", median " + String.format("%.2f", stats.getMedian())
+                    + ", min " + String.format("%.2f", stats.getMinimum())
+                    + ", max " + String.format("%.2f", stats.getMaximum())
+                    + ", std dev " + String.format("%.2f", stats.getStandardDeviation()));
+        }
+        System.out.println();
+    }
+    
+    /**
+     * Displays the students with the highest and lowest overall grades
+     */
+    private static void displayLeaderboard() {
+        System.out.println("\n--- Top and Bottom Students ---");
+        
+        Leaderboard leaderboard = CourseManagement.getLeaderboard();
+        if (leaderboard.size() == 0) {
+            System.out.println("No grades have been assigned yet.\n");
+            return;
+        }
+        
+        int count = getIntInput("How many students to show: ");
+        
+        System.out.println("\nHighest overall grades:");
+        int rank = 1;
+        for (Student student : leaderboard.top(count)) {
+            System.out.println("  " + rank + ". " + student.getName() + " (ID: " + student.getId() + ") - "
+                    + String.format("%.2f", student.getAverageGrade()));
+            rank++;
+        }
+        
+        System.out.println("Lowest overall grades:");
+        rank = leaderboard.size();
+        for (Student student : leaderboard.bottom(count)) {
+            System.out.println("  " + rank + ". " + student.getName() + " (ID: " + student.getId() + ") - "
+                    + String.format("%.2f", student.getAverageGrade()));
+            rank--;
+        }
+        System.out.println();
+    }
+    
     /**
      * Displays enrollment statistics
      */
@@ -305,7 +559,7 @@ public class AdministratorInterface {
         System.out.println("\n--- Enrollment Statistics ---");
         System.out.println("Total Enrolled Students (across all courses): " + Course.getTotalEnrolledStudents());
         System.out.println("Total Courses: " + CourseManagement.getCourses().size());
-        System.out.println("Total Registered Students: " + students.size());
+        System.out.println("Total Registered Students: " + CourseManagement.getStudents().size());
         System.out.println();
     }
     
@@ -316,12 +570,11 @@ public class AdministratorInterface {
      */
     private static Student getOrCreateStudent() {
         String studentId = getStringInput("Enter student ID: ");
-        Student student = CourseManagement.findStudentById(students, studentId);
+        Student student = CourseManagement.findStudentById(studentId);
         
         if (student == null) {
             String studentName = getStringInput("Student not found. Enter student name to create new student: ");
-            student = new Student(studentName, studentId);
-            students.add(student);
+            student = CourseManagement.addStudent(studentName, studentId);
             System.out.println("New student created: " + student.getName() + " (ID: " + student.getId() + ")");
         }
         
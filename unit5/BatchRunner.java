@@ -0,0 +1,304 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * BatchRunner Class
+ * 
+ * This class runs administrator commands from a file (or standard input) without
+ * the interactive menu, for loading a whole term of data at once.
+ * 
+ * Each line holds one command; fields are separated by spaces or tabs, and the
+ * last field of a command may itself contain spaces (course and student names).
+ * Blank lines and lines starting with # are skipped.
+ * 
+ *   ADD_COURSE   <course code> <capacity> <course name>
+ *   ADD_STUDENT  <student ID> <student name>
+ *   ENROLL       <student ID> <course code> [<student name>]
+ *   WAITLIST     <student ID> <course code> [<priority>]
+ *   DROP         <student ID> <course code>
+ *   GRADE        <student ID> <course code> <grade>
+ *   STATS        [<course code>]
+ * 
+ * ENROLL registers the student first if the ID is new and a name is given.
+ * WAITLIST enrolls the student, or puts them on the course's waitlist if it is full;
+ * DROP frees the seat for the next waitlisted student.
+ * Successful commands print nothing; failures are reported with their line
+ * number, and STATS prints the current statistics. All output goes through one
+ * buffered writer, and a throughput summary is printed at the end.
+ */
+public class BatchRunner {
+    private final PrintWriter out;
+    private long commands;
+    private long errors;
+    
+    // Fields of the current line, filled by split
+    private final String[] fields = new String[4];
+    
+    /**
+     * Constructor to initialize a BatchRunner
+     * 
+     * @param out Where results, errors and the summary are written
+     */
+    public BatchRunner(PrintWriter out) {
+        this.out = out;
+    }
+    
+    /**
+     * Method to run every command read from a reader
+     * 
+     * @param in The command source
+     * @return The number of commands that failed
+     * @throws IOException If the commands cannot be read
+     */
+    public long run(BufferedReader in) throws IOException {
+        long start = System.nanoTime();
+        long lineNumber = 0;
+        String line;
+        
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String error = execute(line);
+            if (error != null) {
+                errors++;
+                out.println("line " + lineNumber + ": " + error);
+            }
+        }
+        
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        out.println("Processed " + commands + " commands (" + errors + " failed) in "
+                + elapsedNanos / 1_000_000 + " ms, "
+                + String.format("%.0f", commands * 1e9 / elapsedNanos) + " commands/s");
+        out.flush();
+        return errors;
+    }
+    
+    /**
+     * Method to run one command line
+     * 
+     * @param line The command line
+     * @return null if the command succeeded (or the line was blank), otherwise an error message
+     */
+    private String execute(String line) {
+        int count = split(line, 0);
+        if (count == 0 || fields[0].startsWith("#")) {
+            return null;
+        }
+        commands++;
+        
+        switch (fields[0]) {
+            case "ADD_COURSE":
+                return addCourse(split(line, 4));
+            case "ADD_STUDENT":
+                return addStudent(split(line, 3));
+            case "ENROLL":
+                return enroll(split(line, 4));
+            case "WAITLIST":
+                return waitlist(split(line, 4));
+            case "DROP":
+                return drop(split(line, 3));
+            case "GRADE":
+                return grade(split(line, 4));
+            case "STATS":
+                return stats(split(line, 2));
+            default:
+                return "unknown command " + fields[0];
+        }
+    }
+    
+    private String addCourse(int count) {
+        if (count < 4) {
+            return "usage: ADD_COURSE <course code> <capacity> <course name>";
+        }
+        int capacity;
+        try {
+            capacity = Integer.parseInt(fields[2]);
+        } catch (NumberFormatException e) {
+            return "invalid capacity " + fields[2];
+        }
+        if (capacity <= 0) {
+            return "capacity must be greater than 0";
+        }
+        if (CourseManagement.addCourse(fields[1], fields[3], capacity) == null) {
+            return "course " + fields[1] + " already exists";
+        }
+        return null;
+    }
+    
+    private String addStudent(int count) {
+        if (count < 3) {
+            return "usage: ADD_STUDENT <student ID> <student name>";
+        }
+        if (CourseManagement.addStudent(fields[2], fields[1]) == null) {
+            return "student " + fields[1] + " already exists";
+        }
+        return null;
+    }
+    
+    private String enroll(int count) {
+        if (count < 3) {
+            return "usage: ENROLL <student ID> <course code> [<student name>]";
+        }
+        Student student = CourseManagement.findStudentById(fields[1]);
+        if (student == null && count == 4) {
+            student = CourseManagement.addStudent(fields[3], fields[1]);
+            if (student == null) {
+                // Registered concurrently by someone else
+                student = CourseManagement.findStudentById(fields[1]);
+            }
+        }
+        if (student == null) {
+            return "student " + fields[1] + " not found";
+        }
+        Course course = CourseManagement.findCourseByCode(fields[2]);
+        if (course == null) {
+            return "course " + fields[2] + " not found";
+        }
+        if (!CourseManagement.enrollStudent(student, course)) {
+            return student.isEnrolledIn(course)
+                    ? "student " + fields[1] + " is already enrolled in " + fields[2]
+                    : "course " + fields[2] + " is full";
+        }
+        return null;
+    }
+    
+    private String waitlist(int count) {
+        if (count < 3) {
+            return "usage: WAITLIST <student ID> <course code> [<priority>]";
+        }
+        Student student = CourseManagement.findStudentById(fields[1]);
+        if (student == null) {
+            return "student " + fields[1] + " not found";
+        }
+        Course course = CourseManagement.findCourseByCode(fields[2]);
+        if (course == null) {
+            return "course " + fields[2] + " not found";
+        }
+        int priority = 0;
+        if (count == 4) {
+            try {
+                priority = Integer.parseInt(fields[3]);
+            } catch (NumberFormatException e) {
+                return "invalid priority " + fields[3];
+            }
+        }
+        byte result = CourseManagement.enrollOrWaitlist(student, course, priority);
+        if (result == CourseManagement.ALREADY_ENROLLED) {
+            return "student " + fields[1] + " is already enrolled in " + fields[2];
+        }
+        if (result == CourseManagement.ALREADY_WAITLISTED) {
+            return "student " + fields[1] + " is already waiting for " + fields[2];
+        }
+        return null;
+    }
+    
+    private String drop(int count) {
+        if (count < 3) {
+            return "usage: DROP <student ID> <course code>";
+        }
+        Student student = CourseManagement.findStudentById(fields[1]);
+        if (student == null) {
+            return "student " + fields[1] + " not found";
+        }
+        Course course = CourseManagement.findCourseByCode(fields[2]);
+        if (course == null) {
+            return "course " + fields[2] + " not found";
+        }
+        if (!CourseManagement.dropStudent(student, course)) {
+            return "student " + fields[1] + " is not enrolled in " + fields[2];
+        }
+        return null;
+    }
+    
+    private String grade(int count) {
+        if (count < 4) {
+            return "usage: GRADE <student ID> <course code> <grade>";
+        }
+        Student student = CourseManagement.findStudentById(fields[1]);
+        if (student == null) {
+            return "student " + fields[1] + " not found";
+        }
+        Course course = CourseManagement.findCourseByCode(fields[2]);
+        if (course == null) {
+            return "course " + fields[2] + " not found";
+        }
+        double grade;
+        try {
+            grade = Double.parseDouble(fields[3]);
+        } catch (NumberFormatException e) {
+            return "invalid grade " + fields[3];
+        }
+        if (!(grade >= 0.0 && grade <= 100.0)) { // Also rejects NaN
+            return "grade must be between 0.0 and 100.0";
+        }
+        if (!CourseManagement.assignGrade(student, course, grade)) {
+            return "student " + fields[1] + " is not enrolled in " + fields[2];
+        }
+        return null;
+    }
+    
+    private String stats(int count) {
+        if (count < 2) {
+            out.println("STATS courses=" + CourseManagement.getCourses().size()
+                    + " students=" + CourseManagement.getStudents().size()
+                    + " enrollments=" + Course.getTotalEnrolledStudents()
+                    + " grades=" + CourseManagement.getGradebook().size());
+            return null;
+        }
+        Course course = CourseManagement.findCourseByCode(fields[1]);
+        if (course == null) {
+            return "course " + fields[1] + " not found";
+        }
+        CourseAnalytics.GradeStats stats = CourseManagement.getAnalytics().getStats(course);
+        out.println("STATS " + course.getCourseCode()
+                + " enrolled=" + course.getCurrentEnrollment() + "/" + course.getMaxCapacity()
+                + " waiting=" + course.getWaitlist().size()
+                + " graded=" + stats.getCount()
+                + " mean=" + String.format("%.2f", stats.getMean())
+                + " median=" + String.format("%.2f", stats.getMedian())
+                + " min=" + String.format("%.2f", stats.getMinimum())
+                + " max=" + String.format("%.2f", stats.getMaximum()));
+        return null;
+    }
+    
+    /**
+     * Splits a line into fields without regular expressions
+     * 
+     * @param line The command line
+     * @param limit The most fields to return; the last one keeps the rest of the line (0 for just the first field)
+     * @return The number of fields found
+     */
+    private int split(String line, int limit) {
+        int max = Math.max(1, limit);
+        int count = 0;
+        int position = 0;
+        int length = line.length();
+        
+        while (count < max) {
+            while (position < length && isSeparator(line.charAt(position))) {
+                position++;
+            }
+            if (position == length) {
+                break;
+            }
+            int end = position;
+            if (count == max - 1 && limit > 0) {
+                end = length; // Last field takes the rest of the line
+                while (isSeparator(line.charAt(end - 1))) {
+                    end--;
+                }
+            } else {
+                while (end < length && !isSeparator(line.charAt(end))) {
+                    end++;
+                }
+            }
+            fields[count++] = line.substring(position, end);
+            position = end;
+        }
+        return count;
+    }
+    
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
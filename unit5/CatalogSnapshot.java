@@ -0,0 +1,391 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * CatalogSnapshot Class
+ * 
+ * This class is an immutable, consistent view of all courses, rosters, waitlists,
+ * students and grades at one moment (an epoch). Reports read a snapshot instead of the live
+ * objects, so they never see half-finished changes, never throw
+ * ConcurrentModificationException, and never block registration.
+ * 
+ * Snapshots are published by CourseManagement in batches: changes mark the courses
+ * and students they touch, and each publish builds new views for only those. Views
+ * are kept in chunked tables indexed by handle, so the next snapshot copies just the
+ * chunks holding a changed view plus the small chunk index; every other chunk, and
+ * every unchanged view, is shared with the previous snapshot. The course and student
+ * lists are built the first time a reader asks for them. Readers just read the
+ * latest published snapshot, without any locking.
+ */
+public final class CatalogSnapshot {
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, new ViewTable<>(), new ViewTable<>());
+    
+    private final long epoch;
+    private final ViewTable<CourseView> coursesByHandle;
+    private final ViewTable<StudentView> studentsByHandle;
+    private volatile List<CourseView> courses; // Built on first use
+    private volatile List<StudentView> students; // Built on first use
+    
+    private CatalogSnapshot(long epoch, ViewTable<CourseView> coursesByHandle,
+                            ViewTable<StudentView> studentsByHandle) {
+        this.epoch = epoch;
+        this.coursesByHandle = coursesByHandle;
+        this.studentsByHandle = studentsByHandle;
+    }
+    
+    /**
+     * Method to build the next snapshot from this one and views of the changed objects
+     * The views must all have been taken while no changes were in progress, so
+     * together with the unchanged views they form a consistent cut.
+     * 
+     * @param changedCourses Views of the courses changed since this snapshot
+     * @param changedStudents Views of the students changed since this snapshot
+     * @return The next snapshot
+     */
+    CatalogSnapshot next(List<CourseView> changedCourses, List<StudentView> changedStudents) {
+        return new CatalogSnapshot(epoch + 1,
+                coursesByHandle.with(changedCourses, CourseView::getHandle),
+                studentsByHandle.with(changedStudents, StudentView::getHandle));
+    }
+    
+    /**
+     * Getter method for the epoch
+     * 
+     * @return The number of this snapshot (0 for the empty one, then 1, 2, ...)
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+    
+    /**
+     * Getter method for the courses
+     * 
+     * @return Unmodifiable list of all courses, in handle order (the order in which
+     *         their codes were first seen, which can differ from registration order)
+     */
+    public List<CourseView> getCourses() {
+        List<CourseView> list = courses;
+        if (list == null) {
+            list = coursesByHandle.toList();
+            courses = list;
+        }
+        return list;
+    }
+    
+    /**
+     * Getter method for the students
+     * 
+     * @return Unmodifiable list of all registered students, in handle order (the order
+     *         in which their IDs were first seen, which can differ from registration order)
+     */
+    public List<StudentView> getStudents() {
+        List<StudentView> list = students;
+        if (list == null) {
+            list = studentsByHandle.toList();
+            students = list;
+        }
+        return list;
+    }
+    
+    /**
+     * Method to find a course by course code
+     * 
+     * @param courseCode The course code
+     * @return The course view, or null if the course was not registered at this epoch
+     */
+    public CourseView findCourse(String courseCode) {
+        return coursesByHandle.get(Course.handleOf(courseCode));
+    }
+    
+    /**
+     * Method to find a student by ID
+     * 
+     * @param studentId The student ID
+     * @return The student view, or null if the student was not registered at this epoch
+     */
+    public StudentView findStudent(String studentId) {
+        return studentsByHandle.get(Student.handleOf(studentId));
+    }
+    
+    /**
+     * Method to list the students enrolled in a course
+     * 
+     * @param course The course view
+     * @return The enrolled students, in registration order
+     */
+    public List<StudentView> getRoster(CourseView course) {
+        List<StudentView> roster = new ArrayList<>(course.roster.length);
+        for (int handle : course.roster) {
+            StudentView student = studentsByHandle.get(handle);
+            if (student != null) {
+                roster.add(student);
+            }
+        }
+        return roster;
+    }
+    
+    /**
+     * Method to list the students waiting for a seat in a course
+     * 
+     * @param course The course view
+     * @return The waiting students, in the order they will be served
+     */
+    public List<StudentView> getWaitlist(CourseView course) {
+        List<StudentView> waiting = new ArrayList<>(course.waitlist.length);
+        for (int handle : course.waitlist) {
+            StudentView student = studentsByHandle.get(handle);
+            if (student != null) {
+                waiting.add(student);
+            }
+        }
+        return waiting;
+    }
+    
+    /**
+     * Method to list the courses a student is enrolled in
+     * 
+     * @param student The student view
+     * @return The courses, in the order the student enrolled in them
+     */
+    public List<CourseView> getEnrolledCourses(StudentView student) {
+        List<CourseView> enrolled = new ArrayList<>(student.courseHandles.length);
+        for (int handle : student.courseHandles) {
+            CourseView course = coursesByHandle.get(handle);
+            if (course != null) {
+                enrolled.add(course);
+            }
+        }
+        return enrolled;
+    }
+    
+    /**
+     * CourseView Class
+     * 
+     * A course as it was at the snapshot's epoch.
+     */
+    public static final class CourseView {
+        private final int handle;
+        private final String courseCode;
+        private final String courseName;
+        private final int maxCapacity;
+        private final int[] roster; // Sorted student handles
+        private final int[] waitlist; // Student handles, in serving order
+        private final int[] waitlistPriorities; // Priority of each waitlist entry
+        
+        CourseView(Course course) {
+            this.handle = course.getHandle();
+            this.courseCode = course.getCourseCode();
+            this.courseName = course.getCourseName();
+            this.maxCapacity = course.getMaxCapacity();
+            this.roster = course.getRosterHandles();
+            List<Waitlist.Entry> entries = course.getWaitlist().getEntries();
+            this.waitlist = new int[entries.size()];
+            this.waitlistPriorities = new int[entries.size()];
+            for (int i = 0; i < waitlist.length; i++) {
+                waitlist[i] = entries.get(i).student.getHandle();
+                waitlistPriorities[i] = entries.get(i).priority;
+            }
+        }
+        
+        /**
+         * @return The handle of the course
+         */
+        public int getHandle() {
+            return handle;
+        }
+        
+        /**
+         * @return The course code
+         */
+        public String getCourseCode() {
+            return courseCode;
+        }
+        
+        /**
+         * @return The course name
+         */
+        public String getCourseName() {
+            return courseName;
+        }
+        
+        /**
+         * @return The maximum number of students
+         */
+        public int getMaxCapacity() {
+            return maxCapacity;
+        }
+        
+        /**
+         * @return The number of enrolled students at this epoch
+         */
+        public int getEnrollment() {
+            return roster.length;
+        }
+        
+        /**
+         * @return The number of students waiting for a seat at this epoch
+         */
+        public int getWaitlistLength() {
+            return waitlist.length;
+        }
+        
+        /**
+         * @param position Position on the waitlist, 0 for the next student served
+         * @return The priority of the waitlist entry at that position
+         */
+        public int getWaitlistPriority(int position) {
+            return waitlistPriorities[position];
+        }
+    }
+    
+    /**
+     * StudentView Class
+     * 
+     * A student, with their enrollments and grades, as they were at the snapshot's epoch.
+     */
+    public static final class StudentView {
+        private final int handle;
+        private final String id;
+        private final String name;
+        private final int[] courseHandles; // In enrollment order
+        private final double[] grades; // Grade per enrolled course, NaN if none
+        private final double averageGrade;
+        
+        StudentView(Student student) {
+            synchronized (student) {
+                this.handle = student.getHandle();
+                this.id = student.getId();
+                this.name = student.getName();
+                this.courseHandles = new int[student.getEnrolledCourses().size()];
+                this.grades = new double[courseHandles.length];
+                int i = 0;
+                for (Course course : student.getEnrolledCourses()) {
+                    Double grade = student.getGrade(course);
+                    courseHandles[i] = course.getHandle();
+                    grades[i] = grade != null ? grade : Double.NaN;
+                    i++;
+                }
+                this.averageGrade = student.getAverageGrade();
+            }
+        }
+        
+        /**
+         * @return The handle of the student
+         */
+        public int getHandle() {
+            return handle;
+        }
+        
+        /**
+         * @return The student ID
+         */
+        public String getId() {
+            return id;
+        }
+        
+        /**
+         * @return The student name
+         */
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * @param course The course view
+         * @return The grade for that course, or null if not enrolled or not graded at this epoch
+         */
+        public Double getGrade(CourseView course) {
+            for (int i = 0; i < courseHandles.length; i++) {
+                if (courseHandles[i] == course.handle) {
+                    return Double.isNaN(grades[i]) ? null : grades[i];
+                }
+            }
+            return null;
+        }
+        
+        /**
+         * @return The overall grade at this epoch, or -1.0 if no grades were assigned
+         */
+        public double getAverageGrade() {
+            return averageGrade;
+        }
+    }
+    
+    /**
+     * ViewTable Class
+     * 
+     * An immutable array of views indexed by handle, split into fixed-size chunks
+     * so that a new version can share every chunk it does not change.
+     */
+    private static final class ViewTable<T> {
+        private static final int CHUNK_BITS = 10;
+        private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+        private static final Object[] EMPTY_CHUNK = new Object[CHUNK_SIZE]; // Shared by chunks without views, never written
+        
+        private final Object[][] chunks;
+        private final int length; // One more than the highest handle with a view
+        
+        ViewTable() {
+            this(new Object[0][], 0);
+        }
+        
+        private ViewTable(Object[][] chunks, int length) {
+            this.chunks = chunks;
+            this.length = length;
+        }
+        
+        @SuppressWarnings("unchecked")
+        T get(int handle) {
+            return handle >= 0 && handle < length
+                    ? (T) chunks[handle >>> CHUNK_BITS][handle & (CHUNK_SIZE - 1)] : null;
+        }
+        
+        /**
+         * Returns a table with the given views stored at their handles,
+         * copying only the chunks they fall in
+         */
+        ViewTable<T> with(List<T> views, ToIntFunction<T> handleOf) {
+            if (views.isEmpty()) {
+                return this;
+            }
+            int newLength = length;
+            for (T view : views) {
+                newLength = Math.max(newLength, handleOf.applyAsInt(view) + 1);
+            }
+            
+            // Handles without views can leave whole chunks empty, so new chunks start out shared
+            Object[][] newChunks = Arrays.copyOf(chunks, (newLength + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+            Arrays.fill(newChunks, chunks.length, newChunks.length, EMPTY_CHUNK);
+            boolean[] copied = new boolean[newChunks.length];
+            for (T view : views) {
+                int handle = handleOf.applyAsInt(view);
+                int chunk = handle >>> CHUNK_BITS;
+                if (!copied[chunk]) {
+                    newChunks[chunk] = newChunks[chunk].clone();
+                    copied[chunk] = true;
+                }
+                newChunks[chunk][handle & (CHUNK_SIZE - 1)] = view;
+            }
+            return new ViewTable<>(newChunks, newLength);
+        }
+        
+        /**
+         * Lists the views in handle order, skipping handles without one
+         */
+        @SuppressWarnings("unchecked")
+        List<T> toList() {
+            ArrayList<T> list = new ArrayList<>();
+            for (Object[] chunk : chunks) {
+                for (Object view : chunk) {
+                    if (view != null) {
+                        list.add((T) view);
+                    }
+                }
+            }
+            return Collections.unmodifiableList(list);
+        }
+    }
+}
@@ -1,19 +1,36 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Course Class
  * 
  * This class represents a course in the Course Enrollment and Grade Management System.
  * It stores course information including course code, name, and maximum capacity.
  * It also tracks the total number of enrolled students across all course instances.
+ * Enrollment counters are atomic, so seats can be claimed safely from many threads.
+ * Each course also keeps its roster: the handles of its enrolled students,
+ * so "who is enrolled in this course" never requires scanning every student,
+ * and its waitlist of students waiting for a seat.
  */
 public class Course {
     // Private instance variables
     private String courseCode;
     private String courseName;
     private int maxCapacity;
-    private int currentEnrollment; // Track current enrollment for this course
+    private final AtomicInteger currentEnrollment; // Track current enrollment for this course
+    private final int handle; // Interned course code, used as the key of the course everywhere
+    private int[] roster; // Sorted handles of enrolled students; only the first rosterSize are used
+    private int rosterSize;
+    private final Waitlist waitlist = new Waitlist();
+    
+    // Static variable to track total enrolled students across all courses.
+    // A LongAdder spreads concurrent increments over several cells, so
+    // enrollments in different courses do not contend on one counter.
+    private static final LongAdder totalEnrolledStudents = new LongAdder();
     
-    // Static variable to track total enrolled students across all courses
-    private static int totalEnrolledStudents = 0;
+    // Dense handles of all course codes
+    private static final IdInterner courseCodes = new IdInterner();
     
     /**
      * Constructor to initialize a Course object
@@ -26,7 +43,40 @@ public class Course {
         this.courseCode = courseCode;
         this.courseName = courseName;
         this.maxCapacity = maxCapacity;
-        this.currentEnrollment = 0;
+        this.currentEnrollment = new AtomicInteger(0);
+        this.handle = courseCodes.intern(courseCode);
+        this.roster = new int[Math.max(1, Math.min(maxCapacity, 16))];
+        this.rosterSize = 0;
+    }
+    
+    /**
+     * Getter method for the course handle
+     * Course codes are numbered 0, 1, 2, ... in the order they are first seen,
+     * and courses with the same code share a handle.
+     * 
+     * @return The handle of the course
+     */
+    public int getHandle() {
+        return handle;
+    }
+    
+    /**
+     * Static method to look up the handle of a course code
+     * 
+     * @param courseCode The course code
+     * @return The handle of the code, or -1 if no course has used it
+     */
+    public static int handleOf(String courseCode) {
+        return courseCodes.lookup(courseCode);
+    }
+    
+    /**
+     * Static method to get the number of course handles given out
+     * 
+     * @return One more than the highest course handle
+     */
+    public static int getHandleCount() {
+        return courseCodes.size();
     }
     
     /**
@@ -62,7 +112,7 @@ public class Course {
      * @return The current number of enrolled students
      */
     public int getCurrentEnrollment() {
-        return currentEnrollment;
+        return currentEnrollment.get();
     }
     
     /**
@@ -70,19 +120,140 @@ public class Course {
      * Also increments the static total enrolled students counter
      */
     public void incrementEnrollment() {
-        if (currentEnrollment < maxCapacity) {
-            currentEnrollment++;
-            totalEnrolledStudents++;
+        tryClaimSeat();
+    }
+    
+    /**
+     * Method to atomically claim one seat in this course
+     * The check against maximum capacity and the increment happen as a single
+     * compare-and-set, so concurrent callers can never overbook the course.
+     * Also increments the static total enrolled students counter on success.
+     * 
+     * @return true if a seat was claimed, false if the course is full
+     */
+    public boolean tryClaimSeat() {
+        while (true) {
+            int enrolled = currentEnrollment.get();
+            if (enrolled >= maxCapacity) {
+                return false;
+            }
+            if (currentEnrollment.compareAndSet(enrolled, enrolled + 1)) {
+                totalEnrolledStudents.increment();
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Method to atomically claim up to a number of seats in this course
+     * Grants as many of the requested seats as are still free, with a single
+     * compare-and-set, which lets a batch claim all of its seats at once.
+     * 
+     * @param requested The number of seats wanted
+     * @return The number of seats actually claimed (0 if the course is full)
+     */
+    public int tryClaimSeats(int requested) {
+        while (true) {
+            int enrolled = currentEnrollment.get();
+            int granted = Math.min(requested, maxCapacity - enrolled);
+            if (granted <= 0) {
+                return 0;
+            }
+            if (currentEnrollment.compareAndSet(enrolled, enrolled + granted)) {
+                totalEnrolledStudents.add(granted);
+                return granted;
+            }
         }
     }
     
+    /**
+     * Method to give back a seat previously claimed with tryClaimSeat()
+     * Also decrements the static total enrolled students counter
+     */
+    public void releaseSeat() {
+        currentEnrollment.decrementAndGet();
+        totalEnrolledStudents.decrement();
+    }
+    
+    /**
+     * Getter method for the waitlist
+     * 
+     * @return The students waiting for a seat in this course
+     */
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+    
     /**
      * Method to check if the course has available spots
      * 
      * @return true if there are available spots, false otherwise
      */
     public boolean hasAvailableSpots() {
-        return currentEnrollment < maxCapacity;
+        return currentEnrollment.get() < maxCapacity;
+    }
+    
+    /**
+     * Method to add a student to this course's roster
+     * The roster is bounded by the course capacity, so a sorted int array
+     * (4 bytes per seat) is both compact and fast to search.
+     * 
+     * @param studentHandle The handle of the enrolled student
+     */
+    synchronized void addToRoster(int studentHandle) {
+        int position = Arrays.binarySearch(roster, 0, rosterSize, studentHandle);
+        if (position >= 0) {
+            return; // Already on the roster
+        }
+        position = -position - 1;
+        if (rosterSize == roster.length) {
+            roster = Arrays.copyOf(roster, roster.length * 2);
+        }
+        System.arraycopy(roster, position, roster, position + 1, rosterSize - position);
+        roster[position] = studentHandle;
+        rosterSize++;
+    }
+    
+    /**
+     * Method to remove a student from this course's roster
+     * 
+     * @param studentHandle The handle of the student
+     */
+    synchronized void removeFromRoster(int studentHandle) {
+        int position = Arrays.binarySearch(roster, 0, rosterSize, studentHandle);
+        if (position < 0) {
+            return; // Not on the roster
+        }
+        System.arraycopy(roster, position + 1, roster, position, rosterSize - position - 1);
+        rosterSize--;
+    }
+    
+    /**
+     * Method to check if a student is on this course's roster
+     * 
+     * @param studentHandle The handle of the student
+     * @return true if the student is enrolled in this course
+     */
+    public synchronized boolean hasOnRoster(int studentHandle) {
+        return Arrays.binarySearch(roster, 0, rosterSize, studentHandle) >= 0;
+    }
+    
+    /**
+     * Getter method for the roster size
+     * 
+     * @return The number of students on the roster
+     */
+    public synchronized int getRosterSize() {
+        return rosterSize;
+    }
+    
+    /**
+     * Getter method for the roster
+     * 
+     * @return A copy of the sorted handles of the enrolled students
+     */
+    public synchronized int[] getRosterHandles() {
+        return Arrays.copyOf(roster, rosterSize);
     }
     
     /**
@@ -92,11 +263,12 @@ public class Course {
      * @return The total number of enrolled students
      */
     public static int getTotalEnrolledStudents() {
-        return totalEnrolledStudents;
+        return totalEnrolledStudents.intValue();
     }
     
     /**
      * Override equals method to compare courses by course code
+     * Equal codes have equal handles, so only the ints are compared.
      * 
      * @param obj The object to compare
      * @return true if courses have the same code, false otherwise
@@ -106,17 +278,17 @@ public class Course {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
         Course course = (Course) obj;
-        return courseCode != null ? courseCode.equals(course.courseCode) : course.courseCode == null;
+        return handle == course.handle;
     }
     
     /**
      * Override hashCode method for proper HashMap usage
      * 
-     * @return The hash code based on course code
+     * @return The hash code based on the course handle
      */
     @Override
     public int hashCode() {
-        return courseCode != null ? courseCode.hashCode() : 0;
+        return handle;
     }
 }
 
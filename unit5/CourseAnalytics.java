@@ -0,0 +1,252 @@
+import java.util.Arrays;
+
+/**
+ * CourseAnalytics Class
+ * 
+ * This class keeps grade statistics for every course, updated as grades are assigned.
+ * 
+ * Each course has a GradeStats accumulator holding the count, mean and variance
+ * (Welford's method, which also supports taking a grade back out when it is
+ * replaced), the minimum and maximum, and a fixed-bucket histogram. Recording a
+ * grade is O(1), and every statistic can be read at any time without walking any
+ * student's grades. Percentiles and the median are estimated from the histogram
+ * by interpolating inside a bucket; the estimate always lies in the bucket that
+ * holds the true value, so it is off by at most one bucket (BUCKET_WIDTH points).
+ */
+public class CourseAnalytics {
+    static final double MIN_GRADE = 0.0;
+    static final double MAX_GRADE = 100.0;
+    static final int BUCKETS = 200;
+    static final double BUCKET_WIDTH = (MAX_GRADE - MIN_GRADE) / BUCKETS;
+    
+    // Accumulators by course handle, created on first use
+    private volatile GradeStats[] statsByCourse = new GradeStats[16];
+    
+    /**
+     * Method to record a new or changed grade for a course
+     * 
+     * @param course The Course object
+     * @param previousGrade The grade being replaced, or NaN for a first grade
+     * @param grade The new grade
+     */
+    void recordGrade(Course course, double previousGrade, double grade) {
+        GradeStats stats = getStats(course);
+        if (Double.isNaN(previousGrade)) {
+            stats.add(grade);
+        } else {
+            stats.replace(previousGrade, grade);
+        }
+    }
+    
+    /**
+     * Method to take a grade out of a course's statistics, when the student drops the course
+     * 
+     * @param course The Course object
+     * @param grade The grade being removed
+     */
+    void removeGrade(Course course, double grade) {
+        getStats(course).remove(grade);
+    }
+    
+    /**
+     * Getter method for the grade statistics of a course
+     * 
+     * @param course The Course object
+     * @return The live statistics of the course (empty if no grades yet)
+     */
+    public GradeStats getStats(Course course) {
+        GradeStats[] stats = statsByCourse;
+        int handle = course.getHandle();
+        if (handle < stats.length && stats[handle] != null) {
+            return stats[handle];
+        }
+        return createStats(course);
+    }
+    
+    private synchronized GradeStats createStats(Course course) {
+        GradeStats[] stats = statsByCourse;
+        int handle = course.getHandle();
+        if (handle >= stats.length) {
+            stats = Arrays.copyOf(stats, Math.max(stats.length * 2, handle + 1));
+        }
+        if (stats[handle] == null) {
+            stats[handle] = new GradeStats(course);
+        }
+        statsByCourse = stats;
+        return stats[handle];
+    }
+    
+    /**
+     * GradeStats Class
+     * 
+     * Streaming grade statistics of one course. All methods are synchronized,
+     * so statistics can be read while grades are being recorded.
+     */
+    public static class GradeStats {
+        private final Course course;
+        private int count;
+        private double mean;
+        private double m2; // Sum of squared distances from the mean
+        private double min = Double.NaN;
+        private double max = Double.NaN;
+        private boolean extremesStale; // A removed grade was the min or max
+        private final int[] histogram = new int[BUCKETS];
+        
+        GradeStats(Course course) {
+            this.course = course;
+        }
+        
+        synchronized void add(double grade) {
+            count++;
+            double delta = grade - mean;
+            mean += delta / count;
+            m2 += delta * (grade - mean);
+            histogram[bucketOf(grade)]++;
+            
+            if (count == 1 || grade < min) {
+                min = grade;
+            }
+            if (count == 1 || grade > max) {
+                max = grade;
+            }
+        }
+        
+        synchronized void replace(double previousGrade, double grade) {
+            remove(previousGrade);
+            add(grade);
+        }
+        
+        synchronized void remove(double grade) {
+            // Welford's update in reverse
+            if (count == 1) {
+                count = 0;
+                mean = 0.0;
+                m2 = 0.0;
+            } else {
+                double oldMean = mean;
+                mean = (count * mean - grade) / (count - 1);
+                m2 = Math.max(0.0, m2 - (grade - oldMean) * (grade - mean));
+                count--;
+            }
+            histogram[bucketOf(grade)]--;
+            
+            if (grade == min || grade == max) {
+                extremesStale = true;
+            }
+        }
+        
+        /**
+         * Recomputes min and max from the gradebook after one of them was replaced
+         * Only happens when an extreme grade is regraded, and reads just this course's roster.
+         */
+        private void refreshExtremes() {
+            if (!extremesStale) {
+                return;
+            }
+            Gradebook gradebook = CourseManagement.getGradebook();
+            double newMin = Double.NaN;
+            double newMax = Double.NaN;
+            for (int studentHandle : course.getRosterHandles()) {
+                double grade = gradebook.get(studentHandle, course.getHandle());
+                if (!Double.isNaN(grade)) {
+                    if (Double.isNaN(newMin) || grade < newMin) {
+                        newMin = grade;
+                    }
+                    if (Double.isNaN(newMax) || grade > newMax) {
+                        newMax = grade;
+                    }
+                }
+            }
+            min = newMin;
+            max = newMax;
+            extremesStale = false;
+        }
+        
+        private static int bucketOf(double grade) {
+            int bucket = (int) ((grade - MIN_GRADE) / BUCKET_WIDTH);
+            return Math.max(0, Math.min(BUCKETS - 1, bucket));
+        }
+        
+        /**
+         * @return The number of graded students
+         */
+        public synchronized int getCount() {
+            return count;
+        }
+        
+        /**
+         * @return The mean grade, or NaN if there are no grades
+         */
+        public synchronized double getMean() {
+            return count == 0 ? Double.NaN : mean;
+        }
+        
+        /**
+         * @return The population variance of the grades, or NaN if there are no grades
+         */
+        public synchronized double getVariance() {
+            return count == 0 ? Double.NaN : m2 / count;
+        }
+        
+        /**
+         * @return The population standard deviation of the grades, or NaN if there are no grades
+         */
+        public synchronized double getStandardDeviation() {
+            return Math.sqrt(getVariance());
+        }
+        
+        /**
+         * @return The lowest grade, or NaN if there are no grades
+         */
+        public synchronized double getMinimum() {
+            refreshExtremes();
+            return count == 0 ? Double.NaN : min;
+        }
+        
+        /**
+         * @return The highest grade, or NaN if there are no grades
+         */
+        public synchronized double getMaximum() {
+            refreshExtremes();
+            return count == 0 ? Double.NaN : max;
+        }
+        
+        /**
+         * Method to estimate a percentile from the histogram
+         * Interpolates linearly inside the bucket holding the requested rank.
+         * 
+         * @param percentile The percentile to estimate, from 0 to 100
+         * @return The estimated grade, or NaN if there are no grades
+         */
+        public synchronized double getPercentile(double percentile) {
+            if (count == 0) {
+                return Double.NaN;
+            }
+            double rank = Math.max(0.0, Math.min(100.0, percentile)) / 100.0 * count;
+            int seen = 0;
+            int bucket = 0;
+            while (bucket < BUCKETS - 1 && seen + histogram[bucket] < rank) {
+                seen += histogram[bucket];
+                bucket++;
+            }
+            double fraction = histogram[bucket] == 0 ? 0.0 : (rank - seen) / histogram[bucket];
+            double estimate = MIN_GRADE + (bucket + fraction) * BUCKET_WIDTH;
+            return Math.max(getMinimum(), Math.min(getMaximum(), estimate));
+        }
+        
+        /**
+         * @return The estimated median grade, or NaN if there are no grades
+         */
+        public synchronized double getMedian() {
+            return getPercentile(50.0);
+        }
+        
+        /**
+         * @return A copy of the histogram: element i counts grades in
+         *         [i * BUCKET_WIDTH, (i + 1) * BUCKET_WIDTH), the last bucket includes 100
+         */
+        public synchronized int[] getHistogram() {
+            return histogram.clone();
+        }
+    }
+}
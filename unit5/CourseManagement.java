@@ -1,16 +1,74 @@
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * CourseManagement Class
  * 
  * This class manages courses, student enrollments, and grades in the system.
  * It uses static variables and methods to maintain system-wide information.
+ * 
+ * Enrollment and grading are safe to call from many threads at once without a
+ * global lock: seats are claimed with a compare-and-set on each course's
+ * counter, and each student's own data is guarded by that student's lock.
+ * Adding courses and students is rare and is serialized on a registry lock.
+ * 
+ * When a CourseStore is attached, each change is logged before it is applied,
+ * so a change that cannot be logged throws and leaves everything as it was.
+ * 
+ * Reports can read a CatalogSnapshot instead of the live objects. Every change
+ * holds the shared side of a read-write lock and marks what it touched. Publishing
+ * takes the exclusive side only long enough to copy the changed objects, so each
+ * snapshot is a consistent cut. Once getSnapshot has been called, a background
+ * thread publishes every SNAPSHOT_INTERVAL_MILLIS; publishSnapshot can be called
+ * at any time to include the latest changes.
  */
 public class CourseManagement {
     // Private static variables
+    // Courses and students are kept in insertion order for listing,
+    // and by handle (interned code / ID) for constant-time lookups
     private static ArrayList<Course> courses = new ArrayList<>();
-    private static HashMap<Student, HashMap<Course, Double>> overallCourseGrades = new HashMap<>();
+    private static volatile Course[] coursesByHandle = new Course[16];
+    private static ArrayList<Student> students = new ArrayList<>();
+    private static volatile Student[] studentsByHandle = new Student[16];
+    // Single store for all grades, keyed by (student handle, course handle)
+    private static final Gradebook gradebook = new Gradebook();
+    // Per-course grade statistics, updated on every assignGrade
+    private static final CourseAnalytics analytics = new CourseAnalytics();
+    // Students ranked by overall grade, updated on every assignGrade
+    private static final Leaderboard leaderboard = new Leaderboard();
+    
+    // Guards appends to the ordered course and student lists
+    private static final Object registryLock = new Object();
+    
+    // Write-ahead log that successful operations are recorded in, or null when not persisting
+    private static volatile CourseStore store;
+    
+    // Changes share the read lock; publishing a snapshot takes the write lock
+    static final long SNAPSHOT_INTERVAL_MILLIS = 50;
+    private static final ReentrantReadWriteLock epochLock = new ReentrantReadWriteLock();
+    private static final Lock changeLock = epochLock.readLock();
+    private static final Set<Course> changedCourses = ConcurrentHashMap.newKeySet();
+    private static final Set<Student> changedStudents = ConcurrentHashMap.newKeySet();
+    private static volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    // The periodic publisher is only started once something reads snapshots
+    private static final AtomicBoolean publisherStarted = new AtomicBoolean();
+    
+    // Per-row results of enrollBatch, and results of enrollOrWaitlist
+    public static final byte ENROLLED = 0;
+    public static final byte ALREADY_ENROLLED = 1;
+    public static final byte COURSE_FULL = 2;
+    public static final byte UNKNOWN_STUDENT = 3;
+    public static final byte UNKNOWN_COURSE = 4;
+    public static final byte WAITLISTED = 5;
+    public static final byte ALREADY_WAITLISTED = 6;
     
     /**
      * Static method to add a new course to the system
@@ -21,16 +79,68 @@ public class CourseManagement {
      * @return The created Course object, or null if course code already exists
      */
     public static Course addCourse(String courseCode, String courseName, int maxCapacity) {
-        // Check if course code already exists
-        for (Course course : courses) {
-            if (course.getCourseCode().equals(courseCode)) {
+        synchronized (registryLock) {
+            // Check if course code already exists
+            if (findCourseByCode(courseCode) != null) {
                 return null; // Course code already exists
             }
+            
+            Course newCourse = new Course(courseCode, courseName, maxCapacity);
+            changeLock.lock();
+            try {
+                // Logged before it can be seen, so no later record can refer to an unlogged course
+                if (store != null) {
+                    store.logAddCourse(courseCode, courseName, maxCapacity);
+                }
+                Course[] byHandle = coursesByHandle;
+                if (newCourse.getHandle() >= byHandle.length) {
+                    byHandle = Arrays.copyOf(byHandle, Math.max(byHandle.length * 2, newCourse.getHandle() + 1));
+                }
+                byHandle[newCourse.getHandle()] = newCourse;
+                coursesByHandle = byHandle;
+                courses.add(newCourse);
+                changedCourses.add(newCourse);
+            } finally {
+                changeLock.unlock();
+            }
+            return newCourse;
+        }
+    }
+    
+    /**
+     * Static method to register a new student in the system
+     * 
+     * @param name The name of the student
+     * @param id The unique ID of the student
+     * @return The created Student object, or null if the student ID already exists
+     */
+    public static Student addStudent(String name, String id) {
+        synchronized (registryLock) {
+            // Check if student ID already exists
+            if (findStudentById(id) != null) {
+                return null; // Student ID already exists
+            }
+            
+            Student newStudent = new Student(name, id);
+            changeLock.lock();
+            try {
+                // Logged before it can be seen, so no later record can refer to an unlogged student
+                if (store != null) {
+                    store.logAddStudent(id, name);
+                }
+                Student[] byHandle = studentsByHandle;
+                if (newStudent.getHandle() >= byHandle.length) {
+                    byHandle = Arrays.copyOf(byHandle, Math.max(byHandle.length * 2, newStudent.getHandle() + 1));
+                }
+                byHandle[newStudent.getHandle()] = newStudent;
+                studentsByHandle = byHandle;
+                students.add(newStudent);
+                changedStudents.add(newStudent);
+            } finally {
+                changeLock.unlock();
+            }
+            return newStudent;
         }
-        
-        Course newCourse = new Course(courseCode, courseName, maxCapacity);
-        courses.add(newCourse);
-        return newCourse;
     }
     
     /**
@@ -38,34 +148,452 @@ public class CourseManagement {
      * 
      * @param student The Student object to enroll
      * @param course The Course object to enroll the student in
-     * @return true if enrollment was successful, false if course is full or student already enrolled
+     * @return true if enrollment was successful, false if course is full
+     *         (or has students waiting for a seat), student already enrolled,
+     *         or the course or student is not registered
      */
     public static boolean enrollStudent(Student student, Course course) {
-        // Check if course exists
-        if (!courses.contains(course)) {
+        // Check if course and student exist
+        if (!isRegistered(course) || !isRegistered(student)) {
             return false;
         }
         
-        // Check if course has available spots
-        if (!course.hasAvailableSpots()) {
-            return false;
+        return enroll(student, course, true);
+    }
+    
+    /**
+     * Enrolls a student in a registered course and logs it
+     * 
+     * @param waitlistFirst true to refuse the seat while students are waiting for one
+     * @return true if enrolled, false if already enrolled or no seat could be claimed
+     */
+    private static boolean enroll(Student student, Course course, boolean waitlistFirst) {
+        changeLock.lock();
+        try {
+            synchronized (student) {
+                // Check if student is already enrolled
+                if (student.isEnrolledIn(course)) {
+                    return false;
+                }
+                
+                // Claim a seat; fails if the course is full
+                if (waitlistFirst ? !claimSeatIfNoneWaiting(course) : !course.tryClaimSeat()) {
+                    return false;
+                }
+                
+                addEnrollment(student, course);
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        return true;
+    }
+    
+    /**
+     * Claims a seat unless students are waiting for one: seats that free up
+     * while students are waiting belong to the waitlist. Checked and claimed under
+     * the waitlist's lock, so nobody can join the waitlist in between.
+     */
+    private static boolean claimSeatIfNoneWaiting(Course course) {
+        Waitlist waitlist = course.getWaitlist();
+        synchronized (waitlist) {
+            return waitlist.size() == 0 && course.tryClaimSeat();
+        }
+    }
+    
+    /**
+     * Logs and records an enrollment whose seat has already been claimed
+     * Must be called holding the change lock and the student's lock. If the log
+     * cannot be written, the seat is given back and nothing is changed.
+     */
+    private static void addEnrollment(Student student, Course course) {
+        if (store != null) {
+            try {
+                store.logEnroll(student.getId(), course.getCourseCode());
+            } catch (RuntimeException e) {
+                course.releaseSeat();
+                throw e;
+            }
+        }
+        student.enrollInCourse(course);
+        course.addToRoster(student.getHandle());
+        changedStudents.add(student);
+        changedCourses.add(course);
+    }
+    
+    /**
+     * Static method to enroll a student, or put them on the waitlist if the course is full
+     * 
+     * @param student The Student object
+     * @param course The Course object
+     * @param priority Waitlist priority (higher is served first; 0 for normal requests)
+     * @return ENROLLED, WAITLISTED, ALREADY_ENROLLED, ALREADY_WAITLISTED,
+     *         UNKNOWN_STUDENT or UNKNOWN_COURSE
+     */
+    public static byte enrollOrWaitlist(Student student, Course course, int priority) {
+        if (!isRegistered(course)) {
+            return UNKNOWN_COURSE;
+        }
+        if (!isRegistered(student)) {
+            return UNKNOWN_STUDENT;
+        }
+        
+        byte result;
+        changeLock.lock();
+        try {
+            synchronized (student) {
+                if (student.isEnrolledIn(course)) {
+                    return ALREADY_ENROLLED;
+                }
+                
+                // Take a free seat or join the waitlist in one step under the waitlist's
+                // lock; joining is logged there too, so students with the same
+                // priority are replayed in the order they joined
+                Waitlist waitlist = course.getWaitlist();
+                synchronized (waitlist) {
+                    if (waitlist.size() == 0 && course.tryClaimSeat()) {
+                        result = ENROLLED;
+                    } else if (waitlist.contains(student)) {
+                        result = ALREADY_WAITLISTED;
+                    } else {
+                        if (store != null) {
+                            store.logWaitlist(student.getId(), course.getCourseCode(), priority);
+                        }
+                        waitlist.add(student, priority);
+                        result = WAITLISTED;
+                    }
+                }
+                
+                if (result == ENROLLED) {
+                    addEnrollment(student, course);
+                } else if (result == WAITLISTED) {
+                    changedCourses.add(course);
+                }
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        if (result != WAITLISTED) {
+            return result;
         }
         
-        // Check if student is already enrolled
-        if (student.getEnrolledCourses().contains(course)) {
+        // A seat may have been freed, with nobody to promote yet, just before the student joined
+        promoteFromWaitlist(course);
+        return student.isEnrolledIn(course) ? ENROLLED : WAITLISTED;
+    }
+    
+    /**
+     * Static method to take a student off a course's waitlist
+     * 
+     * @param student The Student object
+     * @param course The Course object
+     * @return true if the student was on the waitlist
+     */
+    public static boolean leaveWaitlist(Student student, Course course) {
+        changeLock.lock();
+        try {
+            synchronized (student) {
+                if (!course.getWaitlist().contains(student)) {
+                    return false;
+                }
+                if (store != null) {
+                    store.logLeaveWaitlist(student.getId(), course.getCourseCode());
+                }
+                course.getWaitlist().remove(student);
+                changedCourses.add(course);
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        return true;
+    }
+    
+    /**
+     * Static method to drop a student from a course
+     * Removes the enrollment and its grade (updating the course statistics and
+     * the leaderboard), frees the seat, and enrolls the next waitlisted student.
+     * 
+     * @param student The Student object
+     * @param course The Course object
+     * @return true if the student was enrolled and has been dropped
+     */
+    public static boolean dropStudent(Student student, Course course) {
+        if (!drop(student, course)) {
             return false;
         }
+        promoteFromWaitlist(course);
+        return true;
+    }
+    
+    /**
+     * Drops a student from a course and logs it, without promoting anyone
+     * 
+     * @return true if the student was enrolled
+     */
+    private static boolean drop(Student student, Course course) {
+        changeLock.lock();
+        try {
+            synchronized (student) {
+                if (!student.isEnrolledIn(course)) {
+                    return false;
+                }
+                // Logged before the seat is freed, so the enrollment that takes the
+                // seat is always logged after this drop
+                if (store != null) {
+                    store.logDrop(student.getId(), course.getCourseCode());
+                }
+                double grade = student.dropCourse(course);
+                course.removeFromRoster(student.getHandle());
+                if (!Double.isNaN(grade)) {
+                    analytics.removeGrade(course, grade);
+                    leaderboard.update(student, student.getAverageGrade());
+                }
+                changedStudents.add(student);
+                changedCourses.add(course);
+                course.releaseSeat();
+            }
+        } finally {
+            changeLock.unlock();
+        }
+        return true;
+    }
+    
+    /**
+     * Static method to fill a course's free seats from its waitlist
+     * Called whenever a seat may have been freed; each promotion is O(log n)
+     * in the waitlist length.
+     * 
+     * @param course The Course object
+     * @return The number of students enrolled from the waitlist
+     */
+    public static int promoteFromWaitlist(Course course) {
+        Waitlist waitlist = course.getWaitlist();
+        int promoted = 0;
+        while (true) {
+            // Polled and enrolled within one change, so no snapshot can miss the student
+            changeLock.lock();
+            try {
+                // The seat is claimed under the waitlist's lock, like direct enrollments
+                // check the waitlist, so nobody can take it from the next student
+                Waitlist.Entry next;
+                synchronized (waitlist) {
+                    if (waitlist.size() == 0 || !course.tryClaimSeat()) {
+                        break;
+                    }
+                    next = waitlist.poll();
+                }
+                
+                synchronized (next.student) {
+                    if (next.student.isEnrolledIn(course)) {
+                        // Enrolled by a concurrent request since joining the waitlist
+                        course.releaseSeat();
+                        continue;
+                    }
+                    addEnrollment(next.student, course);
+                }
+                promoted++;
+            } finally {
+                changeLock.unlock();
+            }
+        }
+        return promoted;
+    }
+    
+    /**
+     * Static method to fill free seats from the waitlists of all courses
+     * Used after recovery, in case a promotion was cut short by a crash.
+     */
+    static void promoteAllWaitlists() {
+        for (Course course : copyCourses()) {
+            if (course.getWaitlist().size() > 0) {
+                promoteFromWaitlist(course);
+            }
+        }
+    }
+    
+    /**
+     * Static method to replay a saved enrollment
+     * Enrollments are logged after their seat is claimed and drops before their
+     * seat is freed, so replaying in log order never exceeds the capacity. The
+     * waitlist is not consulted: a direct enrollment may have claimed its seat
+     * before a student whose joining was logged earlier. The student leaves the
+     * waitlist (a promotion is saved as an enrollment).
+     * 
+     * @return true if the student was enrolled
+     */
+    static boolean restoreEnrollment(Student student, Course course) {
+        course.getWaitlist().remove(student);
+        return enroll(student, course, false);
+    }
+    
+    /**
+     * Static method to replay a saved drop, without promoting anyone
+     * (promotions are saved as enrollments of their own)
+     * 
+     * @return true if the student was enrolled
+     */
+    static boolean restoreDrop(Student student, Course course) {
+        return drop(student, course);
+    }
+    
+    /**
+     * Static method to replay a saved waitlist entry
+     * 
+     * @return true if the student was added to the waitlist
+     */
+    static boolean restoreWaitlistEntry(Student student, Course course, int priority) {
+        return !student.isEnrolledIn(course) && course.getWaitlist().add(student, priority);
+    }
+    
+    /**
+     * Checks that a course is the registered course for its code
+     */
+    private static boolean isRegistered(Course course) {
+        Course[] byHandle = coursesByHandle;
+        return course.getHandle() < byHandle.length && byHandle[course.getHandle()] != null;
+    }
+    
+    /**
+     * Checks that a student is the registered student object for its ID
+     * Another object with the same ID would share the handle but not the enrollments.
+     */
+    private static boolean isRegistered(Student student) {
+        Student[] byHandle = studentsByHandle;
+        return student.getHandle() < byHandle.length && byHandle[student.getHandle()] == student;
+    }
+    
+    /**
+     * Static method to enroll a batch of (student ID, course code) pairs
+     * 
+     * IDs are resolved to handles once, the rows are grouped by course,
+     * and each course claims the seats for its whole group with a single atomic
+     * operation. Seats are handed out in row order, so when a course fills up
+     * the earliest rows win. Enrollments that got a seat are committed together at the end.
+     * 
+     * @param studentIds The student ID of each row
+     * @param courseCodes The course code of each row
+     * @return One result per row: ENROLLED, ALREADY_ENROLLED, COURSE_FULL,
+     *         UNKNOWN_STUDENT or UNKNOWN_COURSE
+     */
+    public static byte[] enrollBatch(String[] studentIds, String[] courseCodes) {
+        if (studentIds.length != courseCodes.length) {
+            throw new IllegalArgumentException("Expected one course code per student ID");
+        }
+        int rows = studentIds.length;
+        byte[] results = new byte[rows];
+        Student[] rowStudents = new Student[rows];
         
-        // Enroll the student
-        student.enrollInCourse(course);
-        course.incrementEnrollment();
+        // Resolve IDs and give every distinct course a group number
+        int[] groupOfCourse = new int[Course.getHandleCount()]; // Group number + 1 by course handle, 0 if none yet
+        ArrayList<Course> groupCourses = new ArrayList<>();
+        int[] rowGroup = new int[rows];
+        int[] groupSize = new int[rows + 1];
+        for (int row = 0; row < rows; row++) {
+            rowStudents[row] = findStudentById(studentIds[row]);
+            Course course = findCourseByCode(courseCodes[row]);
+            rowGroup[row] = -1;
+            if (rowStudents[row] == null) {
+                results[row] = UNKNOWN_STUDENT;
+            } else if (course == null) {
+                results[row] = UNKNOWN_COURSE;
+            } else {
+                if (course.getHandle() >= groupOfCourse.length) {
+                    groupOfCourse = Arrays.copyOf(groupOfCourse, Course.getHandleCount());
+                }
+                int group = groupOfCourse[course.getHandle()] - 1;
+                if (group < 0) {
+                    group = groupCourses.size();
+                    groupOfCourse[course.getHandle()] = group + 1;
+                    groupCourses.add(course);
+                }
+                rowGroup[row] = group;
+                groupSize[group + 1]++;
+            }
+        }
         
-        // Initialize grade entry if not exists
-        if (!overallCourseGrades.containsKey(student)) {
-            overallCourseGrades.put(student, new HashMap<>());
+        // Counting sort of the valid rows by group, keeping row order within a group
+        int groups = groupCourses.size();
+        for (int g = 0; g < groups; g++) {
+            groupSize[g + 1] += groupSize[g];
+        }
+        int[] groupStart = groupSize; // groupStart[g] is now the first slot of group g
+        int[] sortedRows = new int[groupStart[groups]];
+        int[] nextSlot = new int[groups];
+        for (int row = 0; row < rows; row++) {
+            int group = rowGroup[row];
+            if (group >= 0) {
+                sortedRows[groupStart[group] + nextSlot[group]++] = row;
+            }
         }
         
-        return true;
+        // Per course: drop rows already enrolled (or repeated in this batch),
+        // then claim seats for the rest in one go
+        for (int g = 0; g < groups; g++) {
+            Course course = groupCourses.get(g);
+            BitSet seenInGroup = new BitSet(); // Student handles already in this group
+            int candidates = 0;
+            for (int i = groupStart[g]; i < groupStart[g + 1]; i++) {
+                int row = sortedRows[i];
+                Student student = rowStudents[row];
+                if (student.isEnrolledIn(course) || seenInGroup.get(student.getHandle())) {
+                    results[row] = ALREADY_ENROLLED;
+                } else {
+                    seenInGroup.set(student.getHandle());
+                    sortedRows[groupStart[g] + candidates++] = row;
+                }
+            }
+            
+            // Seats that free up while students are waiting belong to the waitlist
+            int granted;
+            Waitlist waitlist = course.getWaitlist();
+            synchronized (waitlist) {
+                granted = waitlist.size() > 0 ? 0 : course.tryClaimSeats(candidates);
+            }
+            for (int i = 0; i < candidates; i++) {
+                int row = sortedRows[groupStart[g] + i];
+                results[row] = i < granted ? ENROLLED : COURSE_FULL;
+            }
+        }
+        
+        // Commit every enrollment that got a seat
+        int row = 0;
+        try {
+            for (; row < rows; row++) {
+                if (results[row] != ENROLLED) {
+                    continue;
+                }
+                Student student = rowStudents[row];
+                Course course = groupCourses.get(rowGroup[row]);
+                changeLock.lock();
+                try {
+                    synchronized (student) {
+                        if (student.isEnrolledIn(course)) {
+                            // Enrolled by a concurrent request since validation
+                            course.releaseSeat();
+                            results[row] = ALREADY_ENROLLED;
+                        } else {
+                            addEnrollment(student, course);
+                        }
+                    }
+                } finally {
+                    changeLock.unlock();
+                }
+                if (results[row] == ALREADY_ENROLLED) {
+                    // The seat may have been freed while students were waiting for it
+                    promoteFromWaitlist(course);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The failed row gave its seat back; give back the seats of the rows not reached
+            for (row++; row < rows; row++) {
+                if (results[row] == ENROLLED) {
+                    groupCourses.get(rowGroup[row]).releaseSeat();
+                }
+            }
+            throw e;
+        }
+        
+        return results;
     }
     
     /**
@@ -73,60 +601,129 @@ public class CourseManagement {
      * 
      * @param student The Student object
      * @param course The Course object
-     * @param grade The grade to assign (typically 0.0 to 100.0)
-     * @return true if grade was assigned successfully, false if student is not enrolled
+     * @param grade The grade to assign, from 0.0 to 100.0
+     * @return true if grade was assigned successfully, false if student is not
+     *         registered or not enrolled
+     * @throws IllegalArgumentException If the grade is outside 0.0 to 100.0 or is NaN,
+     *         which marks a course without a grade
      */
     public static boolean assignGrade(Student student, Course course, double grade) {
-        // Check if student is enrolled in the course
-        if (!student.getEnrolledCourses().contains(course)) {
+        if (!(grade >= 0.0 && grade <= 100.0)) { // Also rejects NaN
+            throw new IllegalArgumentException("Grade must be between 0.0 and 100.0: " + grade);
+        }
+        if (!isRegistered(student)) {
             return false;
         }
         
-        // Assign the grade
-        student.assignGrade(course, grade);
-        
-        // Update overall course grades
-        if (!overallCourseGrades.containsKey(student)) {
-            overallCourseGrades.put(student, new HashMap<>());
+        changeLock.lock();
+        try {
+            synchronized (student) {
+                // Check if student is enrolled in the course
+                if (!student.isEnrolledIn(course)) {
+                    return false;
+                }
+                
+                if (store != null) {
+                    store.logGrade(student.getId(), course.getCourseCode(), grade);
+                }
+                
+                // Assign the grade (stored once, in the gradebook) and update the course statistics
+                double previousGrade = student.assignGrade(course, grade);
+                analytics.recordGrade(course, previousGrade, grade);
+                leaderboard.update(student, student.getAverageGrade());
+                changedStudents.add(student);
+            }
+        } finally {
+            changeLock.unlock();
         }
-        overallCourseGrades.get(student).put(course, grade);
         
         return true;
     }
     
     /**
      * Static method to calculate overall course grade for a student
-     * Calculates the average of all grades assigned to the student
+     * Returns the average of all grades assigned to the student. The student keeps
+     * a running sum and count of its grades, so this is a constant-time read.
      * 
      * @param student The Student object
      * @return The overall grade (average), or -1.0 if no grades are assigned
      */
     public static double calculateOverallGrade(Student student) {
-        HashMap<Course, Double> studentGrades = student.getGrades();
-        
-        if (studentGrades.isEmpty()) {
-            return -1.0; // No grades assigned
+        return student.getAverageGrade();
+    }
+    
+    /**
+     * Static method to get the latest published snapshot
+     * Never blocks; the snapshot may be up to SNAPSHOT_INTERVAL_MILLIS behind
+     * the live data (call publishSnapshot first to include the latest changes).
+     * The first call starts the background thread that keeps publishing.
+     * 
+     * @return The latest CatalogSnapshot
+     */
+    public static CatalogSnapshot getSnapshot() {
+        if (!publisherStarted.get() && publisherStarted.compareAndSet(false, true)) {
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "catalog-snapshot-publisher");
+                thread.setDaemon(true);
+                return thread;
+            }).scheduleWithFixedDelay(CourseManagement::publishSnapshot,
+                    SNAPSHOT_INTERVAL_MILLIS, SNAPSHOT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
         }
-        
-        double sum = 0.0;
-        int count = 0;
-        
-        for (Double grade : studentGrades.values()) {
-            if (grade != null) {
-                sum += grade;
-                count++;
-            }
+        return snapshot;
+    }
+    
+    /**
+     * Static method to publish a snapshot of all changes made so far
+     * Waits for changes in progress to finish and holds new ones back only while
+     * views of the changed courses and students are taken. The new snapshot is
+     * then assembled from those views and the previous snapshot, sharing
+     * everything unchanged, while registration carries on.
+     * 
+     * @return The published snapshot
+     */
+    public static CatalogSnapshot publishSnapshot() {
+        return publishSnapshot(null);
+    }
+    
+    /**
+     * Static method to publish a snapshot and run an action at the same cut
+     * Every change is logged while it holds the shared lock, so an action that
+     * reads the log position here sees exactly the changes in the snapshot.
+     * 
+     * @param atCut Run while changes are held back, or null for none
+     * @return The published snapshot
+     */
+    static synchronized CatalogSnapshot publishSnapshot(Runnable atCut) {
+        if (atCut == null && changedCourses.isEmpty() && changedStudents.isEmpty()) {
+            return snapshot;
         }
-        
-        if (count == 0) {
-            return -1.0;
+        ArrayList<CatalogSnapshot.CourseView> courseViews = new ArrayList<>(changedCourses.size());
+        ArrayList<CatalogSnapshot.StudentView> studentViews = new ArrayList<>(changedStudents.size());
+        epochLock.writeLock().lock();
+        try {
+            // First, so that if it fails the changes stay marked for the next publish
+            if (atCut != null) {
+                atCut.run();
+            }
+            for (Course course : changedCourses) {
+                courseViews.add(new CatalogSnapshot.CourseView(course));
+            }
+            for (Student student : changedStudents) {
+                studentViews.add(new CatalogSnapshot.StudentView(student));
+            }
+            changedCourses.clear();
+            changedStudents.clear();
+        } finally {
+            epochLock.writeLock().unlock();
         }
-        
-        return sum / count;
+        snapshot = snapshot.next(courseViews, studentViews);
+        return snapshot;
     }
     
     /**
      * Static method to get the list of all courses
+     * This is the live list; reports running alongside registration should
+     * read getSnapshot().getCourses() instead.
      * 
      * @return ArrayList of all courses
      */
@@ -134,6 +731,44 @@ public class CourseManagement {
         return courses;
     }
     
+    /**
+     * Static method to get the gradebook holding every grade in the system
+     * 
+     * @return The Gradebook
+     */
+    public static Gradebook getGradebook() {
+        return gradebook;
+    }
+    
+    /**
+     * Static method to get the per-course grade statistics
+     * 
+     * @return The CourseAnalytics
+     */
+    public static CourseAnalytics getAnalytics() {
+        return analytics;
+    }
+    
+    /**
+     * Static method to get the students ranked by overall grade
+     * 
+     * @return The Leaderboard
+     */
+    public static Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+    
+    /**
+     * Static method to get the list of all registered students
+     * This is the live list; reports running alongside registration should
+     * read getSnapshot().getStudents() instead.
+     * 
+     * @return ArrayList of all students, in registration order
+     */
+    public static ArrayList<Student> getStudents() {
+        return students;
+    }
+    
     /**
      * Static method to find a course by course code
      * 
@@ -141,17 +776,104 @@ public class CourseManagement {
      * @return The Course object if found, null otherwise
      */
     public static Course findCourseByCode(String courseCode) {
-        for (Course course : courses) {
-            if (course.getCourseCode().equals(courseCode)) {
-                return course;
+        int handle = Course.handleOf(courseCode);
+        Course[] byHandle = coursesByHandle;
+        return handle >= 0 && handle < byHandle.length ? byHandle[handle] : null;
+    }
+    
+    /**
+     * Static method to find a registered student by ID
+     * 
+     * @param studentId The student ID to search for
+     * @return The Student object if found, null otherwise
+     */
+    public static Student findStudentById(String studentId) {
+        int handle = Student.handleOf(studentId);
+        Student[] byHandle = studentsByHandle;
+        return handle >= 0 && handle < byHandle.length ? byHandle[handle] : null;
+    }
+    
+    /**
+     * Static method to list the students enrolled in a course
+     * Reads the course's roster, so it takes time proportional to the roster
+     * size rather than to the number of students in the system.
+     * 
+     * @param course The Course object
+     * @return ArrayList of enrolled students, in registration order
+     */
+    public static ArrayList<Student> getRoster(Course course) {
+        Student[] byHandle = studentsByHandle;
+        int[] roster = course.getRosterHandles();
+        ArrayList<Student> enrolled = new ArrayList<>(roster.length);
+        for (int studentHandle : roster) {
+            if (studentHandle < byHandle.length && byHandle[studentHandle] != null) {
+                enrolled.add(byHandle[studentHandle]);
             }
         }
-        return null;
+        return enrolled;
+    }
+    
+    /**
+     * Static method to list the registered students not yet enrolled in a course
+     * The roster is marked once in a bitmap, then each registered student is
+     * checked against it in constant time.
+     * 
+     * @param course The Course object
+     * @return ArrayList of students not enrolled in the course, in registration order
+     */
+    public static ArrayList<Student> getStudentsNotEnrolledIn(Course course) {
+        BitSet enrolled = new BitSet();
+        for (int studentHandle : course.getRosterHandles()) {
+            enrolled.set(studentHandle);
+        }
+        
+        ArrayList<Student> notEnrolled = new ArrayList<>();
+        for (Student student : copyStudents()) {
+            if (!enrolled.get(student.getHandle())) {
+                notEnrolled.add(student);
+            }
+        }
+        return notEnrolled;
+    }
+    
+    /**
+     * Static method to copy the course list for consistent iteration
+     * while other threads may be adding courses
+     * 
+     * @return Array of all courses, in creation order
+     */
+    static Course[] copyCourses() {
+        synchronized (registryLock) {
+            return courses.toArray(new Course[0]);
+        }
+    }
+    
+    /**
+     * Static method to copy the student list for consistent iteration
+     * while other threads may be adding students
+     * 
+     * @return Array of all students, in registration order
+     */
+    static Student[] copyStudents() {
+        synchronized (registryLock) {
+            return students.toArray(new Student[0]);
+        }
+    }
+    
+    /**
+     * Static method to start or stop recording operations in a CourseStore
+     * Called by CourseStore itself once recovery has finished.
+     * 
+     * @param courseStore The store to log to, or null to stop logging
+     */
+    static void attachStore(CourseStore courseStore) {
+        store = courseStore;
     }
     
     /**
      * Static method to find a student by ID from a list of students
-     * This is a helper method for the administrator interface
+     * that are not registered with the system. Registered students
+     * should be looked up with findStudentById(String) instead.
      * 
      * @param students The list of students to search
      * @param studentId The student ID to search for
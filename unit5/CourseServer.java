@@ -0,0 +1,461 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CourseServer Class
+ * 
+ * This class serves CourseManagement over HTTP with JSON bodies, so many clients
+ * can use the system at once. It is built on the JDK's com.sun.net.httpserver and
+ * runs each request on its own virtual thread when the JDK has them (Java 21+),
+ * or on a cached thread pool otherwise.
+ * 
+ * Endpoints (request bodies are flat JSON objects):
+ * 
+ *   POST /courses                         {"code", "name", "capacity"}
+ *   POST /students                        {"id", "name"}
+ *   POST /enrollments                     {"studentId", "courseCode"[, "waitlist": true, "priority"]}
+ *   POST /drops                           {"studentId", "courseCode"}
+ *   POST /grades                          {"studentId", "courseCode", "grade"}
+ *   GET  /students/{id}/overall-grade
+ * 
+ * Errors are returned as {"error": "..."} with status 400 (bad request),
+ * 404 (unknown student or course) or 409 (duplicate, full or not enrolled).
+ * With "waitlist": true, a full course answers 202 and the student is enrolled
+ * automatically when a seat frees up, so clients do not need to retry.
+ */
+public class CourseServer {
+    private static final int DEFAULT_PORT = 8080;
+    
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY,
+        // Nagle's algorithm and delayed ACKs add about 40 ms to every response
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    
+    /**
+     * Constructor to create a server bound to a port
+     * 
+     * @param port The port to listen on (0 picks a free port)
+     * @throws IOException If the port cannot be bound
+     */
+    public CourseServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 1024);
+        ExecutorService virtual = newVirtualThreadExecutor();
+        virtualThreads = virtual != null;
+        executor = virtualThreads ? virtual : Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/courses", exchange -> handle(exchange, this::addCourse));
+        server.createContext("/students", exchange -> handle(exchange, this::students));
+        server.createContext("/enrollments", exchange -> handle(exchange, this::enroll));
+        server.createContext("/grades", exchange -> handle(exchange, this::grade));
+        server.createContext("/drops", exchange -> handle(exchange, this::drop));
+    }
+    
+    /**
+     * Main method to run the server until the process is stopped
+     * 
+     * @param args Command line arguments: optionally --port and --data followed by their values
+     * @throws IOException If the server or the data store cannot be started
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Path directory = Path.of("course-data");
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--port")) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--data")) {
+                directory = Path.of(args[i + 1]);
+            }
+        }
+        
+        CourseStore store = CourseStore.open(directory);
+        if (store.getSkippedRecords() > 0) {
+            System.err.println("Warning: " + store.getSkippedRecords()
+                    + " saved records could not be restored; the data may be damaged.");
+        }
+        CourseServer server = new CourseServer(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                store.close();
+            } catch (IOException e) {
+                System.err.println("Could not save data: " + e.getMessage());
+            }
+        }));
+        server.start();
+        System.out.println("Course server listening on port " + server.getPort()
+                + " (" + (server.usesVirtualThreads() ? "virtual threads" : "thread pool") + ")");
+    }
+    
+    /**
+     * Method to start accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * Method to stop the server, letting running requests finish for up to a second
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+    
+    /**
+     * Getter method for the port the server is bound to
+     * 
+     * @return The port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Getter method for the kind of request threads
+     * 
+     * @return true if each request runs on its own virtual thread
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+    
+    /**
+     * Creates a virtual-thread-per-task executor, looked up reflectively so the
+     * class still compiles and runs on JDKs without virtual threads
+     * 
+     * @return The executor, or null if the JDK has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+    
+    // ---- Endpoints ----
+    
+    /**
+     * A response: HTTP status and JSON body
+     */
+    private static class Response {
+        final int status;
+        final String body;
+        
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+        
+        static Response error(int status, String message) {
+            return new Response(status, "{\"error\":" + quote(message) + "}");
+        }
+    }
+    
+    private interface Endpoint {
+        Response serve(HttpExchange exchange) throws IOException;
+    }
+    
+    private Response addCourse(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST") || !exchange.getRequestURI().getPath().equals("/courses")) {
+            return Response.error(404, "not found");
+        }
+        Map<String, String> body = parseObject(readBody(exchange));
+        String code = required(body, "code");
+        String name = required(body, "name");
+        int capacity = Integer.parseInt(required(body, "capacity"));
+        if (capacity <= 0) {
+            return Response.error(400, "capacity must be greater than 0");
+        }
+        if (CourseManagement.addCourse(code, name, capacity) == null) {
+            return Response.error(409, "course " + code + " already exists");
+        }
+        return new Response(201, "{\"code\":" + quote(code) + "}");
+    }
+    
+    private Response students(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        
+        if (method.equals("POST") && path.equals("/students")) {
+            Map<String, String> body = parseObject(readBody(exchange));
+            String id = required(body, "id");
+            if (CourseManagement.addStudent(required(body, "name"), id) == null) {
+                return Response.error(409, "student " + id + " already exists");
+            }
+            return new Response(201, "{\"id\":" + quote(id) + "}");
+        }
+        
+        String suffix = "/overall-grade";
+        if (method.equals("GET") && path.startsWith("/students/") && path.endsWith(suffix)
+                && path.length() > "/students/".length() + suffix.length()) {
+            String id = path.substring("/students/".length(), path.length() - suffix.length());
+            Student student = CourseManagement.findStudentById(id);
+            if (student == null) {
+                return Response.error(404, "student " + id + " not found");
+            }
+            double overallGrade = CourseManagement.calculateOverallGrade(student);
+            return new Response(200, "{\"studentId\":" + quote(id) + ",\"overallGrade\":"
+                    + (overallGrade < 0 ? "null" : Double.toString(overallGrade)) + "}");
+        }
+        return Response.error(404, "not found");
+    }
+    
+    private Response enroll(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST") || !exchange.getRequestURI().getPath().equals("/enrollments")) {
+            return Response.error(404, "not found");
+        }
+        Map<String, String> body = parseObject(readBody(exchange));
+        Student student = CourseManagement.findStudentById(required(body, "studentId"));
+        Course course = CourseManagement.findCourseByCode(required(body, "courseCode"));
+        if (student == null || course == null) {
+            return Response.error(404, student == null ? "student not found" : "course not found");
+        }
+        if (Boolean.parseBoolean(body.get("waitlist"))) {
+            String priority = body.get("priority");
+            byte result = CourseManagement.enrollOrWaitlist(student, course, priority != null ? Integer.parseInt(priority) : 0);
+            if (result == CourseManagement.WAITLISTED) {
+                return new Response(202, "{\"enrolled\":false,\"waitlisted\":true,\"waiting\":"
+                        + course.getWaitlist().size() + "}");
+            }
+            if (result != CourseManagement.ENROLLED) {
+                return Response.error(409, result == CourseManagement.ALREADY_ENROLLED
+                        ? "already enrolled" : "already waitlisted");
+            }
+        } else if (!CourseManagement.enrollStudent(student, course)) {
+            return Response.error(409, student.isEnrolledIn(course) ? "already enrolled" : "course is full");
+        }
+        return new Response(200, "{\"enrolled\":true,\"currentEnrollment\":" + course.getCurrentEnrollment() + "}");
+    }
+    
+    private Response drop(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST") || !exchange.getRequestURI().getPath().equals("/drops")) {
+            return Response.error(404, "not found");
+        }
+        Map<String, String> body = parseObject(readBody(exchange));
+        Student student = CourseManagement.findStudentById(required(body, "studentId"));
+        Course course = CourseManagement.findCourseByCode(required(body, "courseCode"));
+        if (student == null || course == null) {
+            return Response.error(404, student == null ? "student not found" : "course not found");
+        }
+        if (!CourseManagement.dropStudent(student, course)) {
+            if (CourseManagement.leaveWaitlist(student, course)) {
+                return new Response(200, "{\"dropped\":false,\"leftWaitlist\":true}");
+            }
+            return Response.error(409, "student is not enrolled in the course");
+        }
+        return new Response(200, "{\"dropped\":true,\"currentEnrollment\":" + course.getCurrentEnrollment() + "}");
+    }
+    
+    private Response grade(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST") || !exchange.getRequestURI().getPath().equals("/grades")) {
+            return Response.error(404, "not found");
+        }
+        Map<String, String> body = parseObject(readBody(exchange));
+        Student student = CourseManagement.findStudentById(required(body, "studentId"));
+        Course course = CourseManagement.findCourseByCode(required(body, "courseCode"));
+        double grade = Double.parseDouble(required(body, "grade"));
+        if (student == null || course == null) {
+            return Response.error(404, student == null ? "student not found" : "course not found");
+        }
+        if (!(grade >= 0.0 && grade <= 100.0)) {
+            return Response.error(400, "grade must be between 0.0 and 100.0");
+        }
+        if (!CourseManagement.assignGrade(student, course, grade)) {
+            return Response.error(409, "student is not enrolled in the course");
+        }
+        return new Response(200, "{\"grade\":" + grade + "}");
+    }
+    
+    /**
+     * Runs an endpoint and sends its response, turning malformed input into a 400
+     */
+    private static void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            response = endpoint.serve(exchange);
+        } catch (IllegalArgumentException e) { // Includes NumberFormatException
+            response = Response.error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            // Without a response the client would wait until its connection timed out
+            System.err.println("Request " + exchange.getRequestURI() + " failed: " + e);
+            response = Response.error(500, "internal error: " + e);
+        }
+        
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    // ---- Minimal JSON support for flat objects ----
+    
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    private static String required(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException("missing field " + field);
+        }
+        return value;
+    }
+    
+    /**
+     * Parses a flat JSON object whose values are strings, numbers, booleans or null
+     * 
+     * @param json The JSON text
+     * @return Field values as strings (numbers and booleans as written, null fields omitted)
+     * @throws IllegalArgumentException If the text is not such an object
+     */
+    static Map<String, String> parseObject(String json) {
+        Map<String, String> fields = new HashMap<>();
+        int[] position = {skipSpaces(json, 0)};
+        expect(json, position, '{');
+        
+        if (peek(json, position) == '}') {
+            position[0]++;
+        } else {
+            while (true) {
+                String key = parseString(json, position);
+                expect(json, position, ':');
+                String value;
+                if (peek(json, position) == '"') {
+                    value = parseString(json, position);
+                } else {
+                    int start = position[0];
+                    while (position[0] < json.length() && ",} \t\r\n".indexOf(json.charAt(position[0])) < 0) {
+                        position[0]++;
+                    }
+                    value = json.substring(start, position[0]);
+                    if (value.isEmpty()) {
+                        throw new IllegalArgumentException("missing value for " + key);
+                    }
+                    if (value.equals("null")) {
+                        value = null;
+                    }
+                }
+                if (value != null) {
+                    fields.put(key, value);
+                }
+                
+                char next = peek(json, position);
+                position[0]++;
+                if (next == '}') {
+                    break;
+                }
+                if (next != ',') {
+                    throw new IllegalArgumentException("malformed JSON object");
+                }
+            }
+        }
+        if (skipSpaces(json, position[0]) != json.length()) {
+            throw new IllegalArgumentException("unexpected text after JSON object");
+        }
+        return fields;
+    }
+    
+    private static String parseString(String json, int[] position) {
+        expect(json, position, '"');
+        StringBuilder value = new StringBuilder();
+        int i = position[0];
+        while (true) {
+            if (i >= json.length()) {
+                throw new IllegalArgumentException("unterminated JSON string");
+            }
+            char c = json.charAt(i++);
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                if (i >= json.length()) {
+                    throw new IllegalArgumentException("unterminated JSON string");
+                }
+                char escaped = json.charAt(i++);
+                switch (escaped) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u':
+                        if (i + 4 > json.length()) {
+                            throw new IllegalArgumentException("malformed JSON escape");
+                        }
+                        c = (char) Integer.parseInt(json.substring(i, i + 4), 16);
+                        i += 4;
+                        break;
+                    default: c = escaped; // \" \\ \/
+                }
+            }
+            value.append(c);
+        }
+        position[0] = i;
+        return value.toString();
+    }
+    
+    private static char peek(String json, int[] position) {
+        position[0] = skipSpaces(json, position[0]);
+        if (position[0] >= json.length()) {
+            throw new IllegalArgumentException("unexpected end of JSON");
+        }
+        return json.charAt(position[0]);
+    }
+    
+    private static void expect(String json, int[] position, char expected) {
+        if (peek(json, position) != expected) {
+            throw new IllegalArgumentException("expected '" + expected + "' in JSON");
+        }
+        position[0]++;
+    }
+    
+    private static int skipSpaces(String json, int position) {
+        while (position < json.length() && " \t\r\n".indexOf(json.charAt(position)) >= 0) {
+            position++;
+        }
+        return position;
+    }
+    
+    /**
+     * Method to write a string as a JSON string literal
+     * 
+     * @param value The string
+     * @return The quoted and escaped string
+     */
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
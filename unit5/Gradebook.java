@@ -0,0 +1,195 @@
+import java.util.Arrays;
+
+/**
+ * Gradebook Class
+ * 
+ * This class is the single store for every grade in the system.
+ * Grades are kept in open-addressing hash tables keyed by the pair
+ * (student handle, course handle) packed into a long, with the grades in a
+ * parallel double array. There are no per-student maps and no boxed Doubles.
+ * A slot takes 16 bytes, and a table grows by doubling once it is 60% full,
+ * so it is between 30% and 60% full and each grade costs about 27 to 53
+ * bytes, against roughly 100 bytes for a HashMap entry with a boxed key
+ * and value.
+ * 
+ * The grades are split across SEGMENT_COUNT tables chosen by student
+ * handle, each with its own lock, so registration requests for different
+ * students rarely wait for each other. All grades of one student are in the
+ * same segment.
+ */
+public class Gradebook {
+    private static final long EMPTY = -1L; // Real keys are never negative
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int SEGMENT_COUNT = 32; // Power of two
+    
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+    
+    /**
+     * Constructor to initialize an empty gradebook
+     */
+    public Gradebook() {
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment();
+        }
+    }
+    
+    /**
+     * Method to store a grade, replacing any earlier grade for the same pair
+     * 
+     * @param studentHandle The handle of the student
+     * @param courseHandle The handle of the course
+     * @param grade The grade to store
+     * @return The previous grade, or NaN if there was none
+     */
+    public double put(int studentHandle, int courseHandle, double grade) {
+        return segmentFor(studentHandle).put(key(studentHandle, courseHandle), grade);
+    }
+    
+    /**
+     * Method to look up a grade
+     * 
+     * @param studentHandle The handle of the student
+     * @param courseHandle The handle of the course
+     * @return The grade, or NaN if none is stored
+     */
+    public double get(int studentHandle, int courseHandle) {
+        return segmentFor(studentHandle).get(key(studentHandle, courseHandle));
+    }
+    
+    /**
+     * Method to remove a grade
+     * 
+     * @param studentHandle The handle of the student
+     * @param courseHandle The handle of the course
+     * @return The removed grade, or NaN if none was stored
+     */
+    public double remove(int studentHandle, int courseHandle) {
+        return segmentFor(studentHandle).remove(key(studentHandle, courseHandle));
+    }
+    
+    /**
+     * Getter method for the number of stored grades
+     * Segments are counted one at a time, so under concurrent updates the
+     * total may not match any single moment.
+     * 
+     * @return The number of (student, course) pairs with a grade
+     */
+    public int size() {
+        int total = 0;
+        for (Segment segment : segments) {
+            total += segment.size();
+        }
+        return total;
+    }
+    
+    private Segment segmentFor(int studentHandle) {
+        return segments[studentHandle & (SEGMENT_COUNT - 1)];
+    }
+    
+    private static long key(int studentHandle, int courseHandle) {
+        return ((long) studentHandle << 32) | (courseHandle & 0xFFFFFFFFL);
+    }
+    
+    /**
+     * Finds the slot holding key, or the empty slot where it would go (linear probing)
+     */
+    private static int findSlot(long[] table, long key) {
+        int mask = table.length - 1;
+        int slot = homeSlot(key, mask);
+        while (table[slot] != EMPTY && table[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+    
+    private static int homeSlot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+    
+    /**
+     * One lock-protected hash table holding the grades of a share of the students
+     */
+    private static final class Segment {
+        private long[] keys;
+        private double[] grades;
+        private int size;
+        
+        Segment() {
+            keys = new long[64];
+            grades = new double[64];
+            Arrays.fill(keys, EMPTY);
+        }
+        
+        synchronized double put(long key, double grade) {
+            int slot = findSlot(keys, key);
+            
+            if (keys[slot] == key) {
+                double previous = grades[slot];
+                grades[slot] = grade;
+                return previous;
+            }
+            
+            keys[slot] = key;
+            grades[slot] = grade;
+            if (++size > keys.length * LOAD_FACTOR) {
+                resize();
+            }
+            return Double.NaN;
+        }
+        
+        synchronized double get(long key) {
+            int slot = findSlot(keys, key);
+            return keys[slot] == key ? grades[slot] : Double.NaN;
+        }
+        
+        /**
+         * The entries after the removed one in the same probe run are shifted
+         * back into the gap, so lookups never need tombstones.
+         */
+        synchronized double remove(long key) {
+            int slot = findSlot(keys, key);
+            if (keys[slot] != key) {
+                return Double.NaN;
+            }
+            double removed = grades[slot];
+            
+            int mask = keys.length - 1;
+            int gap = slot;
+            int next = (gap + 1) & mask;
+            while (keys[next] != EMPTY) {
+                int home = homeSlot(keys[next], mask);
+                // Move the entry back if its home slot is not between the gap and its current slot
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    keys[gap] = keys[next];
+                    grades[gap] = grades[next];
+                    gap = next;
+                }
+                next = (next + 1) & mask;
+            }
+            keys[gap] = EMPTY;
+            size--;
+            return removed;
+        }
+        
+        synchronized int size() {
+            return size;
+        }
+        
+        private void resize() {
+            long[] oldKeys = keys;
+            double[] oldGrades = grades;
+            keys = new long[oldKeys.length * 2];
+            grades = new double[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = findSlot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    grades[slot] = oldGrades[i];
+                }
+            }
+        }
+    }
+}
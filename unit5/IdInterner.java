@@ -0,0 +1,79 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IdInterner Class
+ * 
+ * This class gives each distinct string key (a course code or a student ID) a
+ * dense int handle: the first key gets 0, the next new key gets 1, and so on.
+ * The same key always gets the same handle.
+ * 
+ * The string is hashed once, when a key is interned or looked up at the edge of
+ * the system (for example, when an administrator types a course code). After
+ * that, courses and students are compared, hashed and stored by their handle,
+ * so maps, rosters and the gradebook can use plain arrays and int keys.
+ */
+public class IdInterner {
+    private final Map<String, Integer> handles = new ConcurrentHashMap<>();
+    private volatile String[] keys = new String[16]; // Key of each handle
+    private int size;
+    
+    /**
+     * Method to get the handle of a key, assigning the next handle if the key is new
+     * 
+     * @param key The key to intern
+     * @return The handle of the key
+     */
+    public int intern(String key) {
+        Integer handle = handles.get(key);
+        if (handle != null) {
+            return handle;
+        }
+        synchronized (this) {
+            handle = handles.get(key);
+            if (handle != null) {
+                return handle;
+            }
+            String[] byHandle = keys;
+            if (size == byHandle.length) {
+                byHandle = Arrays.copyOf(byHandle, byHandle.length * 2);
+            }
+            byHandle[size] = key;
+            keys = byHandle;
+            handles.put(key, size);
+            return size++;
+        }
+    }
+    
+    /**
+     * Method to look up the handle of a key without interning it
+     * 
+     * @param key The key to look up
+     * @return The handle of the key, or -1 if the key was never interned
+     */
+    public int lookup(String key) {
+        Integer handle = handles.get(key);
+        return handle != null ? handle : -1;
+    }
+    
+    /**
+     * Method to get the key of a handle
+     * 
+     * @param handle The handle
+     * @return The key the handle was given to, or null if the handle is not in use
+     */
+    public String keyOf(int handle) {
+        String[] byHandle = keys;
+        return handle >= 0 && handle < byHandle.length ? byHandle[handle] : null;
+    }
+    
+    /**
+     * Getter method for the number of interned keys
+     * 
+     * @return The number of handles given out (handles are 0 to size - 1)
+     */
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,261 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leaderboard Class
+ * 
+ * This class ranks students by their overall grade, for reports such as the
+ * dean's list (top students) or academic probation (bottom students).
+ * 
+ * Students are kept in a treap (a randomized balanced binary search tree) ordered
+ * from the highest average to the lowest, with ties ordered by student handle
+ * (the order in which the students were registered). Every
+ * node also stores the size of its subtree, so the rank of a student can be found
+ * without visiting the whole tree. The leaderboard is updated whenever a grade
+ * changes, so no report needs to recompute and sort every student's average.
+ * 
+ * Costs: update O(log n), rankOf O(log n), top/bottom/range O(log n + K).
+ * Students without any grades are not ranked.
+ */
+public class Leaderboard {
+    
+    private static class Node {
+        final Student student;
+        final double average;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+        
+        Node(Student student, double average, int priority) {
+            this.student = student;
+            this.average = average;
+            this.priority = priority;
+        }
+    }
+    
+    private Node root;
+    // Current node of each student, by student index (null if not ranked)
+    private Node[] nodesByStudent = new Node[16];
+    private int seed = 0x2545F491;
+    
+    /**
+     * Method to update a student's position after their grades changed
+     * 
+     * @param student The Student object
+     * @param average The student's new overall grade, or a negative value if they have no grades
+     */
+    synchronized void update(Student student, double average) {
+        int index = student.getHandle();
+        if (index >= nodesByStudent.length) {
+            nodesByStudent = Arrays.copyOf(nodesByStudent, Math.max(nodesByStudent.length * 2, index + 1));
+        }
+        
+        Node old = nodesByStudent[index];
+        if (old != null) {
+            if (old.average == average) {
+                return;
+            }
+            root = remove(root, old);
+            nodesByStudent[index] = null;
+        }
+        if (average >= 0) {
+            Node node = new Node(student, average, nextPriority());
+            root = insert(root, node);
+            nodesByStudent[index] = node;
+        }
+    }
+    
+    /**
+     * Getter method for the number of ranked students
+     * 
+     * @return The number of students with at least one grade
+     */
+    public synchronized int size() {
+        return size(root);
+    }
+    
+    /**
+     * Method to get the students with the highest overall grades
+     * 
+     * @param k The number of students to return
+     * @return Up to k students, best first
+     */
+    public synchronized List<Student> top(int k) {
+        List<Student> result = new ArrayList<>(Math.max(0, Math.min(k, size(root))));
+        collectBest(root, k, result);
+        return result;
+    }
+    
+    /**
+     * Method to get the students with the lowest overall grades
+     * 
+     * @param k The number of students to return
+     * @return Up to k students, worst first
+     */
+    public synchronized List<Student> bottom(int k) {
+        List<Student> result = new ArrayList<>(Math.max(0, Math.min(k, size(root))));
+        collectWorst(root, k, result);
+        return result;
+    }
+    
+    /**
+     * Method to get the rank of a student
+     * 
+     * @param student The Student object
+     * @return The 1-based rank (1 is the highest overall grade), or -1 if the student has no grades
+     */
+    public synchronized int rankOf(Student student) {
+        int index = student.getHandle();
+        Node target = index < nodesByStudent.length ? nodesByStudent[index] : null;
+        if (target == null) {
+            return -1;
+        }
+        
+        int before = 0;
+        Node node = root;
+        while (node != target) {
+            if (compare(target, node) < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return before + size(node.left) + 1;
+    }
+    
+    /**
+     * Method to get the students whose overall grade lies in a range
+     * 
+     * @param minAverage The lowest overall grade to include
+     * @param maxAverage The highest overall grade to include
+     * @return The matching students, best first
+     */
+    public synchronized List<Student> range(double minAverage, double maxAverage) {
+        List<Student> result = new ArrayList<>();
+        collectRange(root, minAverage, maxAverage, result);
+        return result;
+    }
+    
+    // Higher averages first, then student handles in ascending order
+    private static int compare(Node a, Node b) {
+        int byAverage = Double.compare(b.average, a.average);
+        return byAverage != 0 ? byAverage : Integer.compare(a.student.getHandle(), b.student.getHandle());
+    }
+    
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static Node resize(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+    
+    private int nextPriority() {
+        // xorshift32, enough to keep the treap balanced in expectation
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+    
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (compare(item, node) < 0) {
+            node.left = insert(node.left, item);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, item);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return resize(node);
+    }
+    
+    private static Node remove(Node node, Node item) {
+        if (node == item) {
+            return merge(node.left, node.right);
+        }
+        if (compare(item, node) < 0) {
+            node.left = remove(node.left, item);
+        } else {
+            node.right = remove(node.right, item);
+        }
+        return resize(node);
+    }
+    
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return resize(left);
+        }
+        right.left = merge(left, right.left);
+        return resize(right);
+    }
+    
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = resize(node);
+        return pivot;
+    }
+    
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = resize(node);
+        return pivot;
+    }
+    
+    private static void collectBest(Node node, int k, List<Student> result) {
+        if (node == null || result.size() >= k) {
+            return;
+        }
+        collectBest(node.left, k, result);
+        if (result.size() < k) {
+            result.add(node.student);
+            collectBest(node.right, k, result);
+        }
+    }
+    
+    private static void collectWorst(Node node, int k, List<Student> result) {
+        if (node == null || result.size() >= k) {
+            return;
+        }
+        collectWorst(node.right, k, result);
+        if (result.size() < k) {
+            result.add(node.student);
+            collectWorst(node.left, k, result);
+        }
+    }
+    
+    private static void collectRange(Node node, double minAverage, double maxAverage, List<Student> result) {
+        if (node == null) {
+            return;
+        }
+        // Better students (left) can only match if this node is not already above the range
+        if (node.average <= maxAverage) {
+            collectRange(node.left, minAverage, maxAverage, result);
+        }
+        if (node.average >= minAverage && node.average <= maxAverage) {
+            result.add(node.student);
+        }
+        if (node.average >= minAverage) {
+            collectRange(node.right, minAverage, maxAverage, result);
+        }
+    }
+}
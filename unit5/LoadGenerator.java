@@ -0,0 +1,180 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * LoadGenerator Class
+ * 
+ * This class measures the throughput and latency of a CourseServer on one machine.
+ * It registers courses and students over HTTP, then runs a number of client threads
+ * that each send a mix of enroll (40%), grade (40%) and overall-grade (20%) requests
+ * as fast as the server answers them. Every request's latency is recorded, and the
+ * requests per second and the p50 / p99 / maximum latency are printed at the end.
+ * 
+ * Usage: java LoadGenerator [--url http://localhost:8080] [--threads 32]
+ *        [--requests 200000] [--courses 100] [--students 10000]
+ * Without --url, a server is started in this process on a free port (without a data store).
+ */
+public class LoadGenerator {
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+    
+    /**
+     * Constructor to initialize a LoadGenerator
+     * 
+     * @param baseUrl The server URL, such as http://localhost:8080
+     */
+    public LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+    
+    /**
+     * Main method to run a load test
+     * 
+     * @param args Command line arguments (see the class description)
+     * @throws Exception If the server cannot be started or reached
+     */
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int threads = 32;
+        int requests = 200_000;
+        int courses = 100;
+        int students = 10_000;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url": url = args[i + 1]; break;
+                case "--threads": threads = Integer.parseInt(args[i + 1]); break;
+                case "--requests": requests = Integer.parseInt(args[i + 1]); break;
+                case "--courses": courses = Integer.parseInt(args[i + 1]); break;
+                case "--students": students = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        
+        CourseServer server = null;
+        if (url == null) {
+            server = new CourseServer(0);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+            System.out.println("Started server on " + url
+                    + (server.usesVirtualThreads() ? " (virtual threads)" : " (thread pool)"));
+        }
+        
+        LoadGenerator generator = new LoadGenerator(url);
+        generator.setUp(courses, students);
+        generator.run(threads, requests, courses, students);
+        
+        if (server != null) {
+            server.stop();
+        }
+    }
+    
+    /**
+     * Registers the courses and students used by the test
+     * Capacity is set so that about three enrollments per student fit.
+     */
+    private void setUp(int courses, int students) throws IOException, InterruptedException {
+        int capacity = Math.max(1, 3 * students / courses);
+        for (int c = 0; c < courses; c++) {
+            post("/courses", "{\"code\":\"LOAD" + c + "\",\"name\":\"Load test course " + c
+                    + "\",\"capacity\":" + capacity + "}");
+        }
+        for (int s = 0; s < students; s++) {
+            post("/students", "{\"id\":\"L" + s + "\",\"name\":\"Load test student " + s + "\"}");
+        }
+    }
+    
+    /**
+     * Runs the request mix from several threads and prints the results
+     */
+    private void run(int threads, int requests, int courses, int students) throws InterruptedException {
+        long[][] latencies = new long[threads][];
+        int[] failures = new int[threads];
+        Thread[] workers = new Thread[threads];
+        
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            int count = requests / threads + (t < requests % threads ? 1 : 0);
+            workers[t] = new Thread(() -> {
+                latencies[worker] = new long[count];
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < count; i++) {
+                    String student = "L" + random.nextInt(students);
+                    String course = "LOAD" + random.nextInt(courses);
+                    int kind = random.nextInt(10);
+                    long sent = System.nanoTime();
+                    try {
+                        int status;
+                        if (kind < 4) {
+                            status = post("/enrollments", "{\"studentId\":\"" + student
+                                    + "\",\"courseCode\":\"" + course + "\"}");
+                        } else if (kind < 8) {
+                            status = post("/grades", "{\"studentId\":\"" + student + "\",\"courseCode\":\""
+                                    + course + "\",\"grade\":" + random.nextInt(101) + "}");
+                        } else {
+                            status = get("/students/" + student + "/overall-grade");
+                        }
+                        // 404/409 are normal answers here (not enrolled, course full, ...)
+                        if (status >= 500) {
+                            failures[worker]++;
+                        }
+                    } catch (IOException e) {
+                        failures[worker]++;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    latencies[worker][i] = System.nanoTime() - sent;
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        
+        long[] all = new long[requests];
+        int filled = 0;
+        int failed = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, filled, latencies[t].length);
+            filled += latencies[t].length;
+            failed += failures[t];
+        }
+        Arrays.sort(all);
+        
+        System.out.println(requests + " requests from " + threads + " threads in " + elapsed / 1_000_000 + " ms ("
+                + failed + " failed)");
+        System.out.println("Throughput: " + String.format("%.0f", requests * 1e9 / elapsed) + " requests/s");
+        System.out.println("Latency: p50 " + micros(percentile(all, 50)) + ", p99 " + micros(percentile(all, 99))
+                + ", max " + micros(all[all.length - 1]));
+    }
+    
+    private static long percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank))];
+    }
+    
+    private static String micros(long nanos) {
+        return String.format("%.0f us", nanos / 1000.0);
+    }
+    
+    private int post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+    
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -1,18 +1,29 @@
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Student Class
  * 
  * This class represents a student in the Course Enrollment and Grade Management System.
- * It stores student information including name, ID, enrolled courses, and grades.
+ * It stores student information including name, ID and enrolled courses.
+ * Grades are read from and written to the system-wide Gradebook.
+ * Methods that change or check enrollments and grades synchronize on the student,
+ * so concurrent registration requests for the same student are applied one at a time.
  */
 public class Student {
     // Private instance variables
     private String name;
     private String id;
-    private ArrayList<Course> enrolledCourses;
-    private HashMap<Course, Double> grades; // Maps Course to grade
+    private LinkedHashSet<Course> enrolledCourses; // Hash set for O(1) membership, kept in enrollment order
+    private Set<Course> enrolledCoursesView; // Read-only view handed out by getEnrolledCourses
+    private final int handle; // Interned ID given at construction, used as the key of the student everywhere
+    private double gradeSum; // Running sum of all grades, kept in step with the gradebook
+    private int gradeCount; // Number of courses with a grade
+    
+    // Dense handles of all student IDs
+    private static final IdInterner studentIds = new IdInterner();
     
     /**
      * Constructor to initialize a Student object
@@ -23,8 +34,31 @@ public class Student {
     public Student(String name, String id) {
         this.name = name;
         this.id = id;
-        this.enrolledCourses = new ArrayList<>();
-        this.grades = new HashMap<>();
+        this.enrolledCourses = new LinkedHashSet<>();
+        this.enrolledCoursesView = Collections.unmodifiableSet(enrolledCourses);
+        this.handle = studentIds.intern(id);
+    }
+    
+    /**
+     * Getter method for the student handle
+     * Student IDs are numbered 0, 1, 2, ... in the order they are first seen,
+     * and students with the same ID share a handle. The handle is taken from the
+     * ID given to the constructor and never changes, even if setId is used later.
+     * 
+     * @return The handle of the student
+     */
+    public int getHandle() {
+        return handle;
+    }
+    
+    /**
+     * Static method to look up the handle of a student ID
+     * 
+     * @param studentId The student ID
+     * @return The handle of the ID, or -1 if no student has used it
+     */
+    public static int handleOf(String studentId) {
+        return studentIds.lookup(studentId);
     }
     
     /**
@@ -56,32 +90,75 @@ public class Student {
     
     /**
      * Setter method for student ID
+     * Only a student that is not registered and has no enrollments or grades can
+     * change its ID, because the registry, rosters, waitlists, gradebook and log
+     * all refer to a student by its handle. The handle stays that of the original ID.
      * 
      * @param id The new ID of the student
+     * @throws IllegalStateException if the ID differs and the student is registered,
+     *         enrolled in a course or has a grade
      */
-    public void setId(String id) {
+    public synchronized void setId(String id) {
+        if (id.equals(this.id)) {
+            return;
+        }
+        // Waitlists only take registered students, so this covers waitlist entries too
+        if (CourseManagement.findStudentById(this.id) == this || !enrolledCourses.isEmpty() || gradeCount > 0) {
+            throw new IllegalStateException("Cannot change the ID of student " + this.id + " once it is in use");
+        }
         this.id = id;
     }
     
     /**
      * Getter method for enrolled courses
      * 
-     * @return ArrayList of enrolled courses
+     * @return Read-only Set of enrolled courses, iterated in enrollment order
      */
-    public ArrayList<Course> getEnrolledCourses() {
-        return enrolledCourses;
+    public Set<Course> getEnrolledCourses() {
+        return enrolledCoursesView;
     }
     
     /**
      * Method to enroll a student in a course
-     * Adds the course to the student's enrolled courses list
+     * Adds the course to the student's enrolled courses (ignored if already enrolled)
      * 
      * @param course The Course object to enroll in
      */
-    public void enrollInCourse(Course course) {
-        if (!enrolledCourses.contains(course)) {
-            enrolledCourses.add(course);
+    public synchronized void enrollInCourse(Course course) {
+        enrolledCourses.add(course);
+    }
+    
+    /**
+     * Method to drop a course
+     * Removes the course from the student's enrolled courses, and its grade
+     * (if any) from the gradebook and the running totals.
+     * 
+     * @param course The Course object to drop
+     * @return The grade that was removed, or NaN if the course had no grade
+     */
+    public synchronized double dropCourse(Course course) {
+        if (!enrolledCourses.remove(course)) {
+            return Double.NaN;
+        }
+        double grade = CourseManagement.getGradebook().remove(handle, course.getHandle());
+        if (!Double.isNaN(grade)) {
+            gradeSum -= grade;
+            gradeCount--;
+            if (gradeCount == 0) {
+                gradeSum = 0.0; // Drop any rounding left over from the removals
+            }
         }
+        return grade;
+    }
+    
+    /**
+     * Method to check if the student is enrolled in a course
+     * 
+     * @param course The Course object to check
+     * @return true if the student is enrolled in the course, false otherwise
+     */
+    public synchronized boolean isEnrolledIn(Course course) {
+        return enrolledCourses.contains(course);
     }
     
     /**
@@ -90,17 +167,49 @@ public class Student {
      * 
      * @param course The Course object for which the grade is being assigned
      * @param grade The grade to assign (typically 0.0 to 100.0)
+     * @return The grade that was replaced, or NaN if the course had no grade yet
      */
-    public void assignGrade(Course course, double grade) {
-        grades.put(course, grade);
+    public synchronized double assignGrade(Course course, double grade) {
+        double previous = CourseManagement.getGradebook().put(handle, course.getHandle(), grade);
+        
+        // Keep the running totals in step; a regrade replaces the old grade
+        if (Double.isNaN(previous)) {
+            gradeCount++;
+            gradeSum += grade;
+        } else {
+            gradeSum += grade - previous;
+        }
+        return previous;
+    }
+    
+    /**
+     * Method to get the average of all the student's grades
+     * Reads the running totals kept by assignGrade, so it takes constant time
+     * 
+     * @return The average grade, or -1.0 if no grades are assigned
+     */
+    public synchronized double getAverageGrade() {
+        if (gradeCount == 0) {
+            return -1.0;
+        }
+        return gradeSum / gradeCount;
     }
     
     /**
      * Getter method for grades
+     * Builds a map from the gradebook entries of the student's enrolled courses.
+     * The map is a copy: grades must be changed through assignGrade.
      * 
-     * @return HashMap mapping Course to grade
+     * @return HashMap mapping Course to grade, for courses that have a grade
      */
-    public HashMap<Course, Double> getGrades() {
+    public synchronized HashMap<Course, Double> getGrades() {
+        HashMap<Course, Double> grades = new HashMap<>();
+        for (Course course : enrolledCourses) {
+            double grade = CourseManagement.getGradebook().get(handle, course.getHandle());
+            if (!Double.isNaN(grade)) {
+                grades.put(course, grade);
+            }
+        }
         return grades;
     }
     
@@ -111,6 +220,32 @@ public class Student {
      * @return The grade for that course, or null if not assigned
      */
     public Double getGrade(Course course) {
-        return grades.get(course);
+        double grade = CourseManagement.getGradebook().get(handle, course.getHandle());
+        return Double.isNaN(grade) ? null : grade;
+    }
+    
+    /**
+     * Override equals method to compare students by handle
+     * Students created with the same ID have equal handles, so only the ints are compared.
+     * 
+     * @param obj The object to compare
+     * @return true if students have the same handle, false otherwise
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Student student = (Student) obj;
+        return handle == student.handle;
+    }
+    
+    /**
+     * Override hashCode method for proper HashMap usage
+     * 
+     * @return The hash code based on the student handle
+     */
+    @Override
+    public int hashCode() {
+        return handle;
     }
 }
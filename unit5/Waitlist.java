@@ -0,0 +1,130 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Waitlist Class
+ * 
+ * This class holds the students waiting for a seat in a full course.
+ * 
+ * Students are served by priority (higher first), and students with the same
+ * priority in the order they joined. Entries are kept in a binary heap, so joining
+ * and taking the next student are O(log n). A student who leaves the waitlist is
+ * only unlinked from the index of waiting students; their heap entry is skipped
+ * when it reaches the top.
+ */
+public class Waitlist {
+    // Shared by all waitlists, so join order is comparable across courses
+    private static final AtomicLong nextSequence = new AtomicLong();
+    
+    /**
+     * Entry Class
+     * 
+     * One student's place on a waitlist.
+     */
+    static final class Entry {
+        final Student student;
+        final int priority;
+        final long sequence;
+        
+        Entry(Student student, int priority, long sequence) {
+            this.student = student;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+    
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>((a, b) -> a.priority != b.priority
+            ? Integer.compare(b.priority, a.priority)
+            : Long.compare(a.sequence, b.sequence));
+    private final HashMap<Student, Entry> waiting = new HashMap<>();
+    
+    /**
+     * Method to add a student to the waitlist
+     * 
+     * @param student The Student object
+     * @param priority The priority (higher is served first; 0 for normal requests)
+     * @return true if added, false if the student is already waiting
+     */
+    public synchronized boolean add(Student student, int priority) {
+        if (waiting.containsKey(student)) {
+            return false;
+        }
+        Entry entry = new Entry(student, priority, nextSequence.getAndIncrement());
+        waiting.put(student, entry);
+        queue.add(entry);
+        return true;
+    }
+    
+    /**
+     * Method to remove a student from the waitlist
+     * 
+     * @param student The Student object
+     * @return true if the student was waiting
+     */
+    public synchronized boolean remove(Student student) {
+        return waiting.remove(student) != null;
+    }
+    
+    /**
+     * Method to check if a student is on the waitlist
+     * 
+     * @param student The Student object
+     * @return true if the student is waiting
+     */
+    public synchronized boolean contains(Student student) {
+        return waiting.containsKey(student);
+    }
+    
+    /**
+     * Getter method for the number of waiting students
+     * 
+     * @return The waitlist length
+     */
+    public synchronized int size() {
+        return waiting.size();
+    }
+    
+    /**
+     * Method to take the next student off the waitlist
+     * 
+     * @return The entry of the next student, or null if nobody is waiting
+     */
+    synchronized Entry poll() {
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (waiting.get(entry.student) == entry) {
+                waiting.remove(entry.student);
+                return entry;
+            }
+            // Stale entry of a student who left (and maybe joined again later)
+        }
+        return null;
+    }
+    
+    /**
+     * Getter method for the waiting students and their priorities
+     * 
+     * @return The waiting entries, in the order they will be served
+     */
+    synchronized List<Entry> getEntries() {
+        List<Entry> entries = new ArrayList<>(waiting.values());
+        entries.sort(queue.comparator());
+        return entries;
+    }
+    
+    /**
+     * Getter method for the waiting students
+     * 
+     * @return The waiting students, in the order they will be served
+     */
+    public List<Student> getStudents() {
+        List<Student> students = new ArrayList<>();
+        for (Entry entry : getEntries()) {
+            students.add(entry.student);
+        }
+        return students;
+    }
+}
@@ -96,33 +96,14 @@ public class CourseManagement {
     
     /**
      * Static method to calculate overall course grade for a student
-     * Calculates the average of all grades assigned to the student
+     * Returns the average of all grades assigned to the student. The student keeps
+     * a running sum and count of its grades, so this is a constant-time read.
      * 
      * @param student The Student object
      * @return The overall grade (average), or -1.0 if no grades are assigned
      */
     public static double calculateOverallGrade(Student student) {
-        HashMap<Course, Double> studentGrades = student.getGrades();
-        
-        if (studentGrades.isEmpty()) {
-            return -1.0; // No grades assigned
-        }
-        
-        double sum = 0.0;
-        int count = 0;
-        
-        for (Double grade : studentGrades.values()) {
-            if (grade != null) {
-                sum += grade;
-                count++;
-            }
-        }
-        
-        if (count == 0) {
-            return -1.0;
-        }
-        
-        return sum / count;
+        return student.getAverageGrade();
     }
     
     /**
@@ -13,6 +13,8 @@ public class Student {
     private String id;
     private ArrayList<Course> enrolledCourses;
     private HashMap<Course, Double> grades; // Maps Course to grade
+    private double gradeSum; // Running sum of all grades, kept in step with grades
+    private int gradeCount; // Number of courses with a grade
     
     /**
      * Constructor to initialize a Student object
@@ -92,11 +94,34 @@ public class Student {
      * @param grade The grade to assign (typically 0.0 to 100.0)
      */
     public void assignGrade(Course course, double grade) {
-        grades.put(course, grade);
+        Double previous = grades.put(course, grade);
+        
+        // Keep the running totals in step; a regrade replaces the old grade
+        if (previous == null) {
+            gradeCount++;
+            gradeSum += grade;
+        } else {
+            gradeSum += grade - previous;
+        }
+    }
+    
+    /**
+     * Method to get the average of all the student's grades
+     * Reads the running totals kept by assignGrade, so it takes constant time
+     * 
+     * @return The average grade, or -1.0 if no grades are assigned
+     */
+    public double getAverageGrade() {
+        if (gradeCount == 0) {
+            return -1.0;
+        }
+        return gradeSum / gradeCount;
     }
     
     /**
      * Getter method for grades
+     * Grades must be changed through assignGrade, not through this map,
+     * so the running totals stay correct
      * 
      * @return HashMap mapping Course to grade
      */